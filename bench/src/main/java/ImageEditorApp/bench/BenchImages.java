@@ -0,0 +1,80 @@
+package ImageEditorApp.bench;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+
+// Imágenes sintéticas para los benchmarks
+public class BenchImages {
+
+    // Ancho para una imagen 4:3 de los megapíxeles indicados
+    public static int width(int megapixels) {
+        return (int) Math.round(Math.sqrt(megapixels * 1_000_000 * 4.0 / 3.0));
+    }
+
+    public static int height(int megapixels) {
+        return megapixels * 1_000_000 / width(megapixels);
+    }
+
+    // Degradado con ruido: ni uniforme (comprime demasiado) ni aleatorio puro
+    public static int[] argbPixels(int width, int height) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = x * 255 / width;
+                int g = y * 255 / height;
+                int b = random.nextInt(256);
+                pixels[y * width + x] = 0xFF000000 | (r << 16) | (g << 8) | b;
+            }
+        }
+        return pixels;
+    }
+
+    // Imagen JavaFX con el formato de píxel indicado
+    public static Image fxImage(int megapixels, String format) throws IOException {
+        int width = width(megapixels);
+        int height = height(megapixels);
+        int[] pixels = argbPixels(width, height);
+
+        switch (format) {
+            case "INT_ARGB_PRE":
+                return new WritableImage(new PixelBuffer<>(width, height, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance()));
+            case "BYTE_BGRA_PRE": {
+                ByteBuffer bytes = ByteBuffer.allocate(pixels.length * 4);
+                for (int argb : pixels) {
+                    bytes.put((byte) argb).put((byte) (argb >> 8)).put((byte) (argb >> 16)).put((byte) (argb >>> 24));
+                }
+                bytes.flip();
+                return new WritableImage(new PixelBuffer<>(width, height, bytes, PixelFormat.getByteBgraPreInstance()));
+            }
+            case "DECODED_RGB":
+                return new Image(new ByteArrayInputStream(png(bufferedImage(pixels, width, height))));
+            default:
+                throw new IllegalArgumentException("Formato desconocido: " + format);
+        }
+    }
+
+    public static BufferedImage bufferedImage(int[] pixels, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(pixels, 0, ((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0, pixels.length);
+        return image;
+    }
+
+    public static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package ImageEditorApp.bench;
+
+import ImageEditorApp.FileManager;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Carga con new Image(...) y guardado PNG por el camino de FileManager
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx8g", "-Dprism.order=sw", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"1", "12", "24", "50"})
+    public int megapixels;
+
+    @Param({"1", "4", "9"})
+    public int compressionLevel;
+
+    private byte[] png;
+    private BufferedImage buffered;
+    private File target;
+
+    @Setup
+    public void setup() throws Exception {
+        int width = BenchImages.width(megapixels);
+        int height = BenchImages.height(megapixels);
+        buffered = BenchImages.bufferedImage(BenchImages.argbPixels(width, height), width, height);
+        target = File.createTempFile("bench", ".png");
+        FileManager.setCompressionLevel(compressionLevel);
+        FileManager.writePng(buffered, target); // Se decodifica lo que produce este nivel
+        png = Files.readAllBytes(target.toPath());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(target.toPath());
+    }
+
+    @Benchmark
+    public Image decode(MegapixelCounter counter) {
+        Image image = new Image(new ByteArrayInputStream(png));
+        counter.add(image.getWidth(), image.getHeight());
+        return image;
+    }
+
+    @Benchmark
+    public File encode(MegapixelCounter counter) throws Exception {
+        FileManager.writePng(buffered, target);
+        counter.add(buffered.getWidth(), buffered.getHeight());
+        return target;
+    }
+}
@@ -0,0 +1,78 @@
+package ImageEditorApp.bench;
+
+import ImageEditorApp.ApplyFilters;
+import ImageEditorApp.FilterChain;
+import ImageEditorApp.KernelBackend;
+import ImageEditorApp.KernelBackends;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Filtros de ApplyFilters por tamaño (MP), formato de píxel de la imagen de entrada y backend de kernels
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g", "-Dprism.order=sw", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    @Param({"1", "12", "24", "50"})
+    public int megapixels;
+
+    @Param({"INT_ARGB_PRE", "BYTE_BGRA_PRE", "DECODED_RGB"})
+    public String format;
+
+    @Param({"scalar", "vector"})
+    public String backend;
+
+    private Image image;
+    private FilterChain chain;
+
+    @Setup
+    public void setup() throws Exception {
+        KernelBackend selected = backend.equals("vector") ? KernelBackends.vector() : KernelBackends.scalar();
+        if (selected == null) {
+            throw new IllegalStateException("Backend vectorial no disponible");
+        }
+        KernelBackends.set(selected);
+        image = BenchImages.fxImage(megapixels, format);
+        chain = FilterChain.empty().blackAndWhite().brightness(1.2).invertColors();
+    }
+
+    @Benchmark
+    public Image blackAndWhite(MegapixelCounter counter) {
+        counter.add(image.getWidth(), image.getHeight());
+        return ApplyFilters.applyBlackAndWhite(image);
+    }
+
+    @Benchmark
+    public Image invertColors(MegapixelCounter counter) {
+        counter.add(image.getWidth(), image.getHeight());
+        return ApplyFilters.applyInvertColors(image);
+    }
+
+    @Benchmark
+    public Image brightness(MegapixelCounter counter) {
+        counter.add(image.getWidth(), image.getHeight());
+        return ApplyFilters.applyBrightness(image, 1.2);
+    }
+
+    // Blanco y negro + brillo + inversión fusionados en una pasada
+    @Benchmark
+    public Image fusedChain(MegapixelCounter counter) {
+        counter.add(image.getWidth(), image.getHeight());
+        return ApplyFilters.applyChain(image, chain);
+    }
+}
@@ -0,0 +1,61 @@
+package ImageEditorApp.bench;
+
+import ImageEditorApp.CompiledChain;
+import ImageEditorApp.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Filtros de vecindad de radio fijo (enfoque con sigma 1 y Sobel) por tamaño de imagen
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class FixedRadiusBenchmark {
+
+    @Param({"1", "12", "24"})
+    public int megapixels;
+
+    private int width;
+    private int height;
+    private int[] src;
+    private int[] dst;
+    private CompiledChain sharpen;
+    private CompiledChain edges;
+
+    @Setup
+    public void setup() {
+        width = BenchImages.width(megapixels);
+        height = BenchImages.height(megapixels);
+        src = BenchImages.argbPixels(width, height);
+        dst = new int[src.length];
+        sharpen = FilterChain.empty().sharpen(1.0).compile();
+        edges = FilterChain.empty().edges().compile();
+    }
+
+    @Benchmark
+    public int[] sharpen(MegapixelCounter counter) {
+        counter.add(width, height);
+        sharpen.run(src, dst, width, height);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] edges(MegapixelCounter counter) {
+        counter.add(width, height);
+        edges.run(src, dst, width, height);
+        return dst;
+    }
+}
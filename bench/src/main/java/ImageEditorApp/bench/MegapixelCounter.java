@@ -0,0 +1,24 @@
+package ImageEditorApp.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Megapíxeles procesados: JMH lo reporta como MP/s junto a ops/s
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class MegapixelCounter {
+
+    public double megapixels;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megapixels = 0;
+    }
+
+    public void add(double width, double height) {
+        megapixels += width * height / 1_000_000.0;
+    }
+}
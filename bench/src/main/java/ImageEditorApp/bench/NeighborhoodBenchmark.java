@@ -0,0 +1,66 @@
+package ImageEditorApp.bench;
+
+import ImageEditorApp.CompiledChain;
+import ImageEditorApp.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Filtros de vecindad sobre el array de píxeles (sin conversión JavaFX) por tamaño y radio
+// El desenfoque de caja debería costar lo mismo con cualquier radio; el gaussiano crece con él
+// El enfoque y los bordes tienen radio fijo: están en FixedRadiusBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class NeighborhoodBenchmark {
+
+    @Param({"1", "12", "24"})
+    public int megapixels;
+
+    @Param({"1", "4", "16"})
+    public int radius;
+
+    private int width;
+    private int height;
+    private int[] src;
+    private int[] dst;
+    private CompiledChain gaussian;
+    private CompiledChain box;
+
+    @Setup
+    public void setup() {
+        width = BenchImages.width(megapixels);
+        height = BenchImages.height(megapixels);
+        src = BenchImages.argbPixels(width, height);
+        dst = new int[src.length];
+        gaussian = FilterChain.empty().gaussianBlur(radius / 3.0).compile(); // Radio ceil(3 * sigma)
+        box = FilterChain.empty().boxBlur(radius).compile();
+    }
+
+    @Benchmark
+    public int[] gaussianBlur(MegapixelCounter counter) {
+        counter.add(width, height);
+        gaussian.run(src, dst, width, height);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] boxBlur(MegapixelCounter counter) {
+        counter.add(width, height);
+        box.run(src, dst, width, height);
+        return dst;
+    }
+}
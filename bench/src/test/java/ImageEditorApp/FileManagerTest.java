@@ -0,0 +1,60 @@
+package ImageEditorApp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Escritura atómica: un fallo no deja temporales ni el nombre reservado vacío, y no toca un archivo ya escrito
+class FileManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedWriteReleasesReservedName() throws IOException {
+        File target = FileManager.getUniqueFile(directory.resolve("foto_processed.png").toFile());
+        assertTrue(target.isFile());
+        assertThrows(IOException.class, () -> FileManager.writeAtomically(target, out -> {
+            out.write(new byte[100]);
+            throw new IOException("disco lleno");
+        }));
+        assertFalse(target.exists());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void failedWriteKeepsExistingContent() throws IOException {
+        File target = directory.resolve("foto_processed.png").toFile();
+        byte[] previous = {1, 2, 3};
+        Files.write(target.toPath(), previous);
+        assertThrows(IOException.class, () -> FileManager.writeAtomically(target, out -> {
+            throw new IOException("disco lleno");
+        }));
+        assertArrayEquals(previous, Files.readAllBytes(target.toPath()));
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void successfulWriteReplacesReservation() throws IOException {
+        File target = FileManager.getUniqueFile(directory.resolve("foto_processed.png").toFile());
+        FileManager.writeAtomically(target, out -> out.write(new byte[]{4, 5}));
+        assertArrayEquals(new byte[]{4, 5}, Files.readAllBytes(target.toPath()));
+        assertEquals(1, countFiles());
+    }
+
+    private long countFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
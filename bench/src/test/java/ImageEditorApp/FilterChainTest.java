@@ -0,0 +1,81 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+
+import static ImageEditorApp.TestImages.assertSameImage;
+import static ImageEditorApp.TestImages.assertSamePixels;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// La cadena fusionada en una pasada da lo mismo que aplicar los filtros originales uno tras otro
+class FilterChainTest {
+
+    private static final int WIDTH = 53;
+    private static final int HEIGHT = 41;
+
+    private final Image opaque = TestImages.image(TestImages.randomPixels(WIDTH * HEIGHT, 3, true), WIDTH, HEIGHT);
+
+    @Test
+    void fusedPointChainsMatchBaselineSteps() {
+        String[] specs = {
+                "bw,brightness:1.2,invert",
+                "brightness:0.7,bw,invert,bw",
+                "invert,brightness:2.5",
+                "brightness:1.5,brightness:0.5",
+                "invert,invert"
+        };
+        for (String spec : specs) {
+            assertSameImage(spec, baseline(opaque, spec), FilterChain.parse(spec).apply(opaque));
+        }
+    }
+
+    @Test
+    void pointRunsAreFusedIntoOneStage() {
+        CompiledChain points = FilterChain.parse("bw,brightness:1.2,invert").compile();
+        CompiledChain mixed = FilterChain.parse("bw,invert,blur:1,brightness:1.2,edges").compile();
+        assertEquals(0, points.getRadius());
+        assertEquals(NeighborhoodKernels.gaussianBlur(1).getRadius() + NeighborhoodKernels.edges().getRadius(), mixed.getRadius());
+    }
+
+    @Test
+    void parallelAndSequentialRunsAgree() {
+        Scheduler.getInstance().setParallelism(Math.max(4, Runtime.getRuntime().availableProcessors())); // Franjas en paralelo aunque haya un solo núcleo
+        int width = 1031;
+        int height = 517;
+        int[] src = TestImages.randomPixels(width * height, 4, false);
+        for (String spec : new String[]{"bw,brightness:1.2", "blur:2,invert", "sharpen:1,edges,bw", "boxblur:5"}) {
+            CompiledChain chain = FilterChain.parse(spec).compile();
+            int[] parallel = new int[src.length];
+            int[] sequential = new int[src.length];
+            chain.run(src, parallel, width, height);
+            chain.runSequential(src, sequential, width, height);
+            assertSamePixels(spec, sequential, parallel);
+
+            int[] inPlace = src.clone(); // src y dst pueden ser el mismo array
+            chain.run(inPlace, inPlace, width, height);
+            assertSamePixels(spec + " (en el sitio)", sequential, inPlace);
+        }
+    }
+
+    // Aplica cada filtro de la lista con la implementación original
+    private static Image baseline(Image image, String spec) {
+        Image result = image;
+        for (String token : spec.split(",")) {
+            String[] parts = token.split(":");
+            switch (parts[0]) {
+                case "bw":
+                    result = BaselineFilters.applyBlackAndWhite(result);
+                    break;
+                case "invert":
+                    result = BaselineFilters.applyInvertColors(result);
+                    break;
+                case "brightness":
+                    result = BaselineFilters.applyBrightness(result, Double.parseDouble(parts[1]));
+                    break;
+                default:
+                    throw new IllegalArgumentException(token);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,173 @@
+package ImageEditorApp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static ImageEditorApp.TestImages.assertSamePixels;
+
+// Los filtros de vecindad por bloques y carriles dan lo mismo que una convolución directa píxel a píxel
+// (mismos pesos en punto fijo y mismo redondeo tras cada pasada, bordes repitiendo el último píxel)
+class NeighborhoodKernelsTest {
+
+    // Anchos por debajo y por encima del bloque de 256 columnas, y alturas que no llenan un bloque de 32 filas
+    private static final int[][] SIZES = {{1, 1}, {7, 3}, {61, 45}, {300, 70}};
+
+    @Test
+    void gaussianBlurMatchesDirectConvolution() {
+        for (double sigma : new double[]{0.3, 1.0, 2.0, 4.5}) {
+            int[] weights = NeighborhoodKernels.gaussianWeights(sigma);
+            assertMatches("blur:" + sigma, NeighborhoodKernels.gaussianBlur(sigma), (src, width, height) -> separable(src, width, height, weights, 16));
+        }
+    }
+
+    @Test
+    void boxBlurMatchesDirectAverage() {
+        for (int radius : new int[]{1, 2, 5, 40}) { // 40: ventana mayor que la imagen pequeña
+            int[] weights = new int[2 * radius + 1];
+            Arrays.fill(weights, 1);
+            assertMatches("boxblur:" + radius, NeighborhoodKernels.boxBlur(radius), (src, width, height) -> separable(src, width, height, weights, 0));
+        }
+    }
+
+    @Test
+    void sharpenMatchesUnsharpMask() {
+        for (double amount : new double[]{0.5, 1.0, 3.0}) {
+            int[] weights = NeighborhoodKernels.gaussianWeights(1.0);
+            int gain = (int) Math.round(amount * 256);
+            assertMatches("sharpen:" + amount, NeighborhoodKernels.sharpen(amount, 1.0), (src, width, height) -> {
+                int[] blurred = separable(src, width, height, weights, 16);
+                int[] out = new int[src.length];
+                for (int i = 0; i < src.length; i++) {
+                    out[i] = src[i] & 0xFF000000;
+                    for (int shift = 0; shift <= 16; shift += 8) {
+                        int original = src[i] >> shift & 0xFF;
+                        int value = original + ((original - (blurred[i] >> shift & 0xFF)) * gain + 128 >> 8);
+                        out[i] |= Math.max(0, Math.min(255, value)) << shift;
+                    }
+                }
+                return out;
+            });
+        }
+    }
+
+    @Test
+    void edgesMatchDirectSobel() {
+        assertMatches("edges", NeighborhoodKernels.edges(), (src, width, height) -> {
+            int[] out = new int[src.length];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int gx = 0;
+                    int gy = 0;
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            int luma = luma(src[clamp(y + dy, height) * width + clamp(x + dx, width)]);
+                            gx += dx * (dy == 0 ? 2 : 1) * luma;
+                            gy += dy * (dx == 0 ? 2 : 1) * luma;
+                        }
+                    }
+                    int magnitude = Math.min(255, (int) Math.sqrt(gx * gx + gy * gy));
+                    out[y * width + x] = src[y * width + x] & 0xFF000000 | magnitude * 0x010101;
+                }
+            }
+            return out;
+        });
+    }
+
+    @Test
+    void scaledChainMatchesScaledKernels() {
+        // La vista previa a media escala usa la mitad de sigma y de radio
+        int width = 61;
+        int height = 45;
+        int[] src = TestImages.randomPixels(width * height, 6, false);
+        int[] expected = new int[src.length];
+        int[] actual = new int[src.length];
+        NeighborhoodKernels.gaussianBlur(1.0).apply(src, expected, width, height, 0, height);
+        FilterChain.empty().gaussianBlur(2.0).compile(0.5).runSequential(src, actual, width, height);
+        assertSamePixels("blur:2 a escala 0.5", expected, actual);
+    }
+
+    // Compara el kernel con la referencia: imagen completa, dos rangos de filas por separado y en franjas con PixelEngine
+    private static void assertMatches(String name, NeighborhoodKernel kernel, Reference reference) {
+        Scheduler.getInstance().setParallelism(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        for (int[] size : SIZES) {
+            int width = size[0];
+            int height = size[1];
+            String label = name + " " + width + "x" + height;
+            int[] src = TestImages.randomPixels(width * height, width * 31L + height, false);
+            int[] expected = reference.apply(src, width, height);
+
+            int[] whole = new int[src.length];
+            kernel.apply(src, whole, width, height, 0, height);
+            assertSamePixels(label, expected, whole);
+
+            int[] split = new int[src.length];
+            kernel.apply(src, split, width, height, 0, height / 2);
+            kernel.apply(src, split, width, height, height / 2, height);
+            assertSamePixels(label + " (por rangos)", expected, split);
+        }
+
+        int width = 1031; // Suficiente para que PixelEngine reparta franjas entre hilos
+        int height = 517;
+        int[] src = TestImages.randomPixels(width * height, 7, false);
+        int[] strips = new int[src.length];
+        PixelEngine.run(kernel, src, strips, width, height);
+        assertSamePixels(name + " (franjas)", reference.apply(src, width, height), strips);
+    }
+
+    // Pasada horizontal y luego vertical, cada una redondeada: (suma + mitad) >> shift, o / suma de pesos si shift es 0
+    private static int[] separable(int[] src, int width, int height, int[] weights, int shift) {
+        int radius = weights.length / 2;
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int[][] channels = new int[4][src.length];
+        for (int c = 0; c < 4; c++) {
+            for (int i = 0; i < src.length; i++) {
+                channels[c][i] = src[i] >>> (8 * c) & 0xFF;
+            }
+        }
+        int[] out = new int[src.length];
+        for (int c = 0; c < 4; c++) {
+            int[] horizontal = new int[src.length];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    long sum = 0;
+                    for (int k = -radius; k <= radius; k++) {
+                        sum += (long) weights[k + radius] * channels[c][y * width + clamp(x + k, width)];
+                    }
+                    horizontal[y * width + x] = round(sum, shift, total);
+                }
+            }
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    long sum = 0;
+                    for (int k = -radius; k <= radius; k++) {
+                        sum += (long) weights[k + radius] * horizontal[clamp(y + k, height) * width + x];
+                    }
+                    out[y * width + x] |= round(sum, shift, total) << (8 * c);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static int round(long sum, int shift, int total) {
+        return shift > 0 ? (int) (sum + (1L << (shift - 1)) >> shift) : (int) ((sum + total / 2) / total);
+    }
+
+    private static int luma(int pixel) {
+        return ((pixel >> 16 & 0xFF) + (pixel >> 8 & 0xFF) + (pixel & 0xFF) + 1) / 3;
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : Math.min(size - 1, value);
+    }
+
+    // Resultado esperado para una imagen
+    @FunctionalInterface
+    private interface Reference {
+        int[] apply(int[] src, int width, int height);
+    }
+}
@@ -0,0 +1,61 @@
+package ImageEditorApp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static ImageEditorApp.TestImages.assertSamePixels;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// El reparto en franjas no cambia el resultado, sea cual sea el tamaño de franja o el umbral de paralelismo
+class PixelEngineTest {
+
+    private int stripRows;
+    private int parallelThreshold;
+
+    @BeforeEach
+    void saveConfiguration() {
+        stripRows = PixelEngine.getStripRows();
+        parallelThreshold = PixelEngine.getParallelThreshold();
+        Scheduler.getInstance().setParallelism(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @AfterEach
+    void restoreConfiguration() {
+        PixelEngine.setStripRows(stripRows);
+        PixelEngine.setParallelThreshold(parallelThreshold);
+    }
+
+    @Test
+    void stripSizeDoesNotChangeOutput() {
+        int width = 97;
+        int height = 83;
+        int[] src = TestImages.randomPixels(width * height, 8, false);
+        PixelKernel kernel = KernelBackends.scalar().blackAndWhite();
+        int[] expected = new int[src.length];
+        kernel.apply(src, expected, 0, src.length);
+
+        PixelEngine.setParallelThreshold(0); // Paraleliza aunque la imagen sea pequeña
+        for (int rows : new int[]{1, 7, 64, 1000}) {
+            PixelEngine.setStripRows(rows);
+            int[] point = new int[src.length];
+            PixelEngine.run(kernel, src, point, width, height);
+            assertSamePixels("bw, franjas de " + rows, expected, point);
+
+            NeighborhoodKernel blur = NeighborhoodKernels.gaussianBlur(1.5);
+            int[] blurExpected = new int[src.length];
+            int[] blurActual = new int[src.length];
+            blur.apply(src, blurExpected, width, height, 0, height);
+            PixelEngine.run(blur, src, blurActual, width, height);
+            assertSamePixels("blur, franjas de " + rows, blurExpected, blurActual);
+        }
+    }
+
+    @Test
+    void settersClampInvalidValues() {
+        PixelEngine.setStripRows(0);
+        PixelEngine.setParallelThreshold(-5);
+        assertEquals(1, PixelEngine.getStripRows());
+        assertEquals(0, PixelEngine.getParallelThreshold());
+    }
+}
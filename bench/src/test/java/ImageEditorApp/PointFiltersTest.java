@@ -0,0 +1,42 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+
+import static ImageEditorApp.TestImages.assertSameImage;
+
+// Los kernels sobre int[] dan exactamente lo mismo que la implementación original con Color
+class PointFiltersTest {
+
+    private static final int WIDTH = 67;
+    private static final int HEIGHT = 45;
+
+    private final Image opaque = TestImages.image(TestImages.randomPixels(WIDTH * HEIGHT, 1, true), WIDTH, HEIGHT);
+
+    @Test
+    void blackAndWhiteMatchesBaseline() {
+        assertSameImage("bw", BaselineFilters.applyBlackAndWhite(opaque), ApplyFilters.applyBlackAndWhite(opaque));
+    }
+
+    @Test
+    void invertColorsMatchesBaseline() {
+        assertSameImage("invert", BaselineFilters.applyInvertColors(opaque), ApplyFilters.applyInvertColors(opaque));
+    }
+
+    @Test
+    void brightnessMatchesBaseline() {
+        for (double factor : new double[]{0.0, 0.01, 0.33, 0.77, 1.0, 1.05, 1.2, 1.5, 1.99, 2.7, 10.0}) {
+            assertSameImage("brightness:" + factor, BaselineFilters.applyBrightness(opaque, factor),
+                    ApplyFilters.applyBrightness(opaque, factor));
+        }
+    }
+
+    @Test
+    void largeImageMatchesBaselineAcrossStrips() {
+        int width = 1031; // Por encima del umbral de paralelismo, con una última franja incompleta
+        int height = 517;
+        Image large = TestImages.image(TestImages.randomPixels(width * height, 2, true), width, height);
+        assertSameImage("bw", BaselineFilters.applyBlackAndWhite(large), ApplyFilters.applyBlackAndWhite(large));
+        assertSameImage("brightness:1.2", BaselineFilters.applyBrightness(large, 1.2), ApplyFilters.applyBrightness(large, 1.2));
+    }
+}
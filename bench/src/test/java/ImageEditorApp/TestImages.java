@@ -0,0 +1,46 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Datos sintéticos y comparaciones comunes a las pruebas de filtros
+final class TestImages {
+
+    private TestImages() {
+    }
+
+    // Píxeles ARGB aleatorios (semilla fija); opaque pone el alfa a 255
+    static int[] randomPixels(int count, long seed, boolean opaque) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] pixels = new int[count];
+        for (int i = 0; i < count; i++) {
+            pixels[i] = opaque ? 0xFF000000 | random.nextInt(1 << 24) : random.nextInt();
+        }
+        return pixels;
+    }
+
+    static WritableImage image(int[] pixels, int width, int height) {
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return image;
+    }
+
+    // Igualdad exacta, indicando el primer píxel distinto
+    static void assertSamePixels(String filter, int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length, filter + ": tamaño");
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                assertEquals(Integer.toHexString(expected[i]), Integer.toHexString(actual[i]), filter + ": píxel " + i);
+            }
+        }
+    }
+
+    static void assertSameImage(String filter, Image expected, Image actual) {
+        assertSamePixels(filter, PixelEngine.readPixels(expected), PixelEngine.readPixels(actual));
+    }
+}
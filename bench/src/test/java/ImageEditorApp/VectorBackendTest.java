@@ -0,0 +1,75 @@
+package ImageEditorApp;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static ImageEditorApp.TestImages.assertSamePixels;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Cada filtro del backend vectorial coincide con el escalar, también en rangos desalineados y en el sitio
+// (surefire arranca con --add-modules jdk.incubator.vector, así que el backend debe estar disponible)
+class VectorBackendTest {
+
+    private static final int[] SRC = TestImages.randomPixels(4099, 5, false);
+
+    private static KernelBackend scalar;
+    private static KernelBackend vector;
+
+    @BeforeAll
+    static void loadBackends() {
+        scalar = KernelBackends.scalar();
+        vector = KernelBackends.vector();
+        assertNotNull(vector, "Backend vectorial no disponible o descartado por KernelBackends.matchesScalar");
+    }
+
+    @Test
+    void blackAndWhite() {
+        assertSameKernel("bw", scalar.blackAndWhite(), vector.blackAndWhite());
+    }
+
+    @Test
+    void invertColors() {
+        assertSameKernel("invert", scalar.invertColors(), vector.invertColors());
+    }
+
+    @Test
+    void brightness() {
+        for (double factor : new double[]{0.0, 0.5, 1.0, 1.2, 2.5, 10.0}) {
+            assertSameProgram("brightness:" + factor, FilterOps.brightness(factor));
+        }
+    }
+
+    @Test
+    void fusedPrograms() {
+        assertSameProgram("bw,brightness", FilterOps.blackAndWhite(), FilterOps.brightness(1.2));
+        assertSameProgram("brightness,bw,invert", FilterOps.brightness(0.7), FilterOps.blackAndWhite(), FilterOps.invertColors());
+        assertSameProgram("invert,bw,bw", FilterOps.invertColors(), FilterOps.blackAndWhite(), FilterOps.blackAndWhite());
+    }
+
+    // Compila las operaciones en un programa y lo compara en los dos backends
+    private static void assertSameProgram(String name, PointOp... ops) {
+        PointProgram.Builder builder = new PointProgram.Builder();
+        for (PointOp op : ops) {
+            op.appendTo(builder);
+        }
+        PointProgram program = builder.build();
+        assertSameKernel(name, scalar.program(program), vector.program(program));
+    }
+
+    // Rango completo, rangos cortos y desalineados (cola escalar del bucle vectorial) y ejecución en el sitio
+    private static void assertSameKernel(String name, PixelKernel expected, PixelKernel actual) {
+        int[][] ranges = {{0, SRC.length}, {3, SRC.length - 5}, {1, 2}, {7, 7}, {13, 80}};
+        for (int[] range : ranges) {
+            int[] expectedDst = new int[SRC.length];
+            int[] actualDst = new int[SRC.length];
+            expected.apply(SRC, expectedDst, range[0], range[1]);
+            actual.apply(SRC, actualDst, range[0], range[1]);
+            assertSamePixels(name + " [" + range[0] + ", " + range[1] + ")", expectedDst, actualDst);
+        }
+        int[] expectedInPlace = SRC.clone();
+        int[] actualInPlace = SRC.clone();
+        expected.apply(expectedInPlace, expectedInPlace, 0, SRC.length);
+        actual.apply(actualInPlace, actualInPlace, 0, SRC.length);
+        assertSamePixels(name + " (en el sitio)", expectedInPlace, actualInPlace);
+    }
+}
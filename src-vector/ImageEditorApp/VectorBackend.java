@@ -0,0 +1,96 @@
+package ImageEditorApp;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Kernels SIMD con la Vector API (incubadora). Requiere compilar y ejecutar con --add-modules jdk.incubator.vector;
+// KernelBackends la carga por reflexión y, si no está, usa ScalarBackend
+public class VectorBackend implements KernelBackend {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int OPAQUE = 0xFF000000;
+    private static final int DIVIDE_BY_3 = 21846; // (s + 1) * 21846 >>> 16 == (s + 1) / 3 para s <= 765
+
+    private final ScalarBackend scalar = new ScalarBackend(); // Para los píxeles que no llenan un vector
+
+    @Override
+    public String getName() {
+        return "vectorial " + SPECIES.vectorBitSize() + " bits";
+    }
+
+    @Override
+    public PixelKernel blackAndWhite() {
+        PixelKernel tail = scalar.blackAndWhite();
+        return (src, dst, from, to) -> {
+            int i = from;
+            for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+                IntVector argb = IntVector.fromArray(SPECIES, src, i);
+                IntVector gray = luma(channel(argb, 16).add(channel(argb, 8)).add(channel(argb, 0)));
+                gray(gray).intoArray(dst, i);
+            }
+            tail.apply(src, dst, i, to);
+        };
+    }
+
+    @Override
+    public PixelKernel invertColors() {
+        PixelKernel tail = scalar.invertColors();
+        return (src, dst, from, to) -> {
+            int i = from;
+            for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+                IntVector.fromArray(SPECIES, src, i).lanewise(VectorOperators.XOR, 0x00FFFFFF).or(OPAQUE).intoArray(dst, i);
+            }
+            tail.apply(src, dst, i, to);
+        };
+    }
+
+    // Solo los programas que son exactamente blanco y negro o inversión se vectorizan. Las tablas necesitan
+    // gather, que no mejora al escalar en las cadenas fusionadas y ha mostrado fallos de C2 en el JDK 17
+    @Override
+    public PixelKernel program(PointProgram program) {
+        boolean preIdentity = isIdentity(program.getPreRed()) && isIdentity(program.getPreGreen()) && isIdentity(program.getPreBlue());
+        if (program.hasGray() && preIdentity
+                && isIdentity(program.getPostRed()) && isIdentity(program.getPostGreen()) && isIdentity(program.getPostBlue())) {
+            return blackAndWhite();
+        }
+        if (!program.hasGray() && isInvert(program.getPreRed()) && isInvert(program.getPreGreen()) && isInvert(program.getPreBlue())) {
+            return invertColors();
+        }
+        return scalar.program(program);
+    }
+
+    private static IntVector channel(IntVector argb, int shift) {
+        return (shift == 0 ? argb : argb.lanewise(VectorOperators.LSHR, shift)).and(0xFF);
+    }
+
+    private static IntVector luma(IntVector sum) {
+        return sum.add(1).mul(DIVIDE_BY_3).lanewise(VectorOperators.LSHR, 16);
+    }
+
+    private static IntVector gray(IntVector value) {
+        return pack(value, value, value);
+    }
+
+    private static IntVector pack(IntVector r, IntVector g, IntVector b) {
+        return r.lanewise(VectorOperators.LSHL, 16).or(g.lanewise(VectorOperators.LSHL, 8)).or(b).or(OPAQUE);
+    }
+
+    private static boolean isIdentity(int[] table) {
+        for (int i = 0; i < 256; i++) {
+            if (table[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInvert(int[] table) {
+        for (int i = 0; i < 256; i++) {
+            if (table[i] != 255 - i) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
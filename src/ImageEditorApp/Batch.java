@@ -0,0 +1,570 @@
+package ImageEditorApp;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Procesado por lotes sin interfaz: listado -> lectura -> filtros -> escritura, unidos por colas acotadas
+// Las imágenes grandes van a su propio hilo, que las procesa por franjas sin pasar por las colas
+// Uso: java ImageEditorApp.Batch --in dir --out dir --filters bw,brightness:1.2,blur:2 --threads N [--watch]
+// Con --watch sigue vigilando la carpeta; el manifiesto permite reanudar tras un corte sin repetir lo hecho
+public class Batch {
+
+    private static final Job END = new Job(null, null, null, null); // Marca de fin de cola
+    private static final File NO_MORE_FILES = new File(""); // Marca de fin de la cola de archivos
+    private static final String MANIFEST_NAME = ".batch-manifest.tsv";
+    private static final long WATCH_QUIET_MILLIS = 1000; // Tiempo sin cambios para dar un archivo por copiado
+    private static final int MAX_RESULTS = 1024; // Resultados recientes para los duplicados; la caché en disco cubre el resto
+
+    private final File inputDirectory;
+    private final File outputDirectory;
+    private final FilterChain chain;
+    private final int decodeThreads;
+    private final int filterThreads;
+    private final int encodeThreads;
+    private final BlockingQueue<File> files;
+    private final BlockingQueue<Job> largeJobs;
+    private final BlockingQueue<Job> decoded;
+    private final BlockingQueue<Job> filtered;
+    private final ResultCache cache = ResultCache.getInstance();
+
+    // Archivos idénticos dentro de la misma ejecución: se procesa el primero y los demás copian su resultado
+    private final Object dedupeLock = new Object();
+    private final LinkedHashMap<String, File> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, List<Job>> waiting = new HashMap<>(); // Clave en proceso -> duplicados que la esperan
+
+    private BatchManifest manifest;
+    private boolean watch;
+    private volatile boolean stopping;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public Batch(File inputDirectory, File outputDirectory, FilterChain chain, int threads, int queueSize) {
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = outputDirectory;
+        this.chain = chain;
+        this.decodeThreads = Math.max(1, threads / 2);
+        this.filterThreads = Math.max(1, threads);
+        this.encodeThreads = Math.max(1, threads / 2);
+        this.files = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.largeJobs = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.decoded = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.filtered = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+    }
+
+    // Punto de entrada por línea de comandos
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File in = null;
+        File out = new File(System.getProperty("user.home"), "ProcessedImages");
+        String filters = "";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = -1;
+        File metricsFile = null;
+        File manifestFile = null;
+        File cacheDir = null;
+        boolean cache = false;
+        boolean watch = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in":
+                    in = new File(requireValue(args, ++i));
+                    break;
+                case "--out":
+                    out = new File(requireValue(args, ++i));
+                    break;
+                case "--filters":
+                    filters = requireValue(args, ++i);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                case "--queue":
+                    queueSize = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                case "--metrics":
+                    metricsFile = new File(requireValue(args, ++i));
+                    break;
+                case "--cache":
+                    cache = true;
+                    break;
+                case "--cache-dir":
+                    cacheDir = new File(requireValue(args, ++i));
+                    break;
+                case "--watch":
+                    watch = true;
+                    break;
+                case "--manifest":
+                    manifestFile = new File(requireValue(args, ++i));
+                    break;
+                default:
+                    usage("Argumento desconocido: " + args[i]);
+            }
+        }
+
+        if (in == null || !in.isDirectory()) {
+            usage("Falta una carpeta de entrada válida (--in)");
+        }
+        if (isInside(out, in)) {
+            usage("La carpeta de salida no puede ser la de entrada ni estar dentro de ella (--out)");
+        }
+        if (!out.exists() && !out.mkdirs()) {
+            usage("No se pudo crear la carpeta de salida: " + out);
+        }
+        // La caché en disco solo se usa si se pide, y por defecto dentro de la carpeta de salida
+        if (cacheDir != null) {
+            if (isInside(cacheDir, in)) {
+                usage("La carpeta de caché no puede estar dentro de la de entrada (--cache-dir)");
+            }
+            ResultCache.getInstance().setDiskDirectory(cacheDir);
+        } else if (cache) {
+            ResultCache.getInstance().enableDiskUnder(out);
+        }
+        if (queueSize <= 0) {
+            queueSize = threads * 2;
+        }
+
+        if (manifestFile == null) {
+            manifestFile = new File(out, MANIFEST_NAME);
+        }
+
+        System.out.println("Kernels: " + KernelBackends.get().getName());
+        Batch batch = new Batch(in, out, FilterChain.parse(filters), threads, queueSize);
+        BatchManifest manifest = new BatchManifest(manifestFile);
+        batch.setManifest(manifest);
+        batch.setWatch(watch);
+        if (watch) {
+            // Ctrl+C: deja de aceptar archivos y espera a que terminen los que ya están en marcha
+            Thread main = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                batch.stop();
+                try {
+                    main.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "batch-shutdown"));
+            System.out.println("Vigilando " + in + " (Ctrl+C para terminar)");
+        }
+        long start = System.nanoTime();
+        try {
+            batch.run();
+        } finally {
+            manifest.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Procesadas: %d, ya hechas: %d, errores: %d, %.1f s (%.1f imágenes/s)%n",
+                batch.processed.get(), batch.skipped.get(), batch.failed.get(), seconds, batch.processed.get() / Math.max(seconds, 1e-9));
+        System.out.printf("Caché: %d aciertos, %d fallos%n", ResultCache.getHits(), ResultCache.getMisses());
+        System.out.println(Metrics.summary());
+        if (metricsFile != null) {
+            Files.writeString(metricsFile.toPath(), Metrics.toJson());
+        }
+        if (batch.failed.get() > 0 && !watch) { // En modo vigilancia ya se está apagando la JVM
+            System.exit(1);
+        }
+    }
+
+    // Ejecuta las etapas y espera a que terminen; cada una recibe sus marcas de fin cuando acaba la anterior
+    public void run() throws InterruptedException {
+        Thread scan = startThread("batch-scan", this::scanStage);
+        List<Thread> decodeStage = new ArrayList<>();
+        for (int i = 0; i < decodeThreads; i++) {
+            decodeStage.add(startThread("batch-decode-" + i, this::decodeStage));
+        }
+        Thread largeStage = startThread("batch-large", this::largeStage);
+        List<Thread> filterStage = new ArrayList<>();
+        for (int i = 0; i < filterThreads; i++) {
+            filterStage.add(startThread("batch-filter-" + i, this::filterStage));
+        }
+        List<Thread> encodeStage = new ArrayList<>();
+        for (int i = 0; i < encodeThreads; i++) {
+            encodeStage.add(startThread("batch-encode-" + i, this::encodeStage));
+        }
+
+        scan.join();
+        for (Thread thread : decodeStage) {
+            thread.join();
+        }
+        for (int i = 0; i < filterThreads; i++) {
+            decoded.put(END);
+        }
+        largeJobs.put(END);
+        largeStage.join();
+        for (Thread thread : filterStage) {
+            thread.join();
+        }
+        for (int i = 0; i < encodeThreads; i++) {
+            filtered.put(END);
+        }
+        for (Thread thread : encodeStage) {
+            thread.join();
+        }
+    }
+
+    // Registro para saltar lo ya procesado y apuntar cada archivo terminado (opcional)
+    public void setManifest(BatchManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    // Seguir vigilando la carpeta de entrada hasta stop() en vez de terminar al recorrerla
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    // Deja de leer archivos nuevos; run() termina cuando acaban los que ya están en las colas
+    public void stop() {
+        stopping = true;
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    // Etapa 1: recorre la carpeta en streaming (o la vigila) y reparte los archivos a los hilos de lectura
+    private void scanStage() throws InterruptedException {
+        try {
+            if (watch) {
+                try (HotFolder folder = new HotFolder(inputDirectory, WATCH_QUIET_MILLIS)) {
+                    while (!stopping) {
+                        File file = folder.poll(500, TimeUnit.MILLISECONDS); // Vuelve a mirar stopping cada medio segundo
+                        if (file != null) {
+                            files.put(file);
+                        }
+                    }
+                }
+            } else {
+                try (DirectoryStream<Path> listing = Files.newDirectoryStream(inputDirectory.toPath(), "*.{png,jpg,PNG,JPG,jpeg,JPEG}")) {
+                    for (Path path : listing) {
+                        if (stopping) {
+                            break;
+                        }
+                        files.put(path.toFile());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error leyendo la carpeta: " + e.getMessage());
+        } finally {
+            for (int i = 0; i < decodeThreads; i++) {
+                files.put(NO_MORE_FILES);
+            }
+        }
+    }
+
+    // Etapa 2: decodifica lo que no esté ya hecho o en la caché
+    private void decodeStage() throws InterruptedException {
+        for (File file = files.take(); file != NO_MORE_FILES; file = files.take()) {
+            decode(file);
+        }
+    }
+
+    private void decode(File file) throws InterruptedException {
+        Job pending = null;
+        String entry = null;
+        try {
+            entry = manifest != null ? manifest.claim(file) : BatchManifest.entry(file);
+            if (entry == null) {
+                skipped.incrementAndGet(); // Terminado en una ejecución anterior, o ya en marcha en esta
+                return;
+            }
+            Metrics.jobStarted(); // Hasta que se apunta (record) o se suelta por un fallo (release)
+            boolean large = LargeImageProcessor.isLarge(file);
+            String key = ResultCache.key(ResultCache.fileHash(file), chain, large ? "full:bands" : "full:imageio");
+            pending = new Job(file, null, key, entry);
+            if (reuse(pending)) {
+                return;
+            }
+            if (large) {
+                largeJobs.put(pending); // No ocupa a los hilos de lectura mientras se procesa
+                return;
+            }
+
+            Job job;
+            try (Metrics.Sample sample = Metrics.start("decode")) {
+                BufferedImage source = ImageIO.read(file);
+                if (source == null) {
+                    throw new IOException("Formato no soportado");
+                }
+                job = new Job(file, toArgb(source), key, entry);
+                sample.stop(job.megapixels());
+            }
+            enqueue(decoded, job, "queue-wait:filter");
+        } catch (IOException | RuntimeException e) {
+            if (pending != null) {
+                fail(pending, e);
+            } else {
+                fail(file, e);
+                release(entry);
+            }
+        }
+    }
+
+    // Etapa 3: aplica la cadena compilada sobre el array de píxeles
+    private void filterStage() throws InterruptedException {
+        CompiledChain compiled = chain.compile();
+        String stage = "filter:" + chain.getKey();
+        for (Job job = decoded.take(); job != END; job = decoded.take()) {
+            job.queueWait.stop();
+            try {
+                if (!chain.isEmpty()) {
+                    try (Metrics.Sample sample = Metrics.start(stage)) {
+                        int[] pixels = pixels(job.image);
+                        compiled.runSequential(pixels, pixels, job.image.getWidth(), job.image.getHeight());
+                        sample.stop(job.megapixels());
+                    }
+                }
+                enqueue(filtered, job, "queue-wait:encode");
+            } catch (RuntimeException e) {
+                fail(job, e);
+            }
+        }
+    }
+
+    // Pasa el trabajo a la siguiente cola midiendo su espera; si no llega a encolarse, la medición se descarta
+    private static void enqueue(BlockingQueue<Job> queue, Job job, String stage) throws InterruptedException {
+        job.queueWait = Metrics.start(stage);
+        try {
+            queue.put(job);
+        } catch (InterruptedException e) {
+            job.queueWait.close();
+            throw e;
+        }
+    }
+
+    // Etapa 4: codifica en PNG con el mismo nombre que FileManager
+    private void encodeStage() throws InterruptedException {
+        for (Job job = filtered.take(); job != END; job = filtered.take()) {
+            job.queueWait.stop();
+            try {
+                File target = FileManager.getUniqueFile(new File(outputDirectory, FileManager.getProcessedName(job.file)));
+                FileManager.writePng(job.image, target);
+                finish(job, target);
+            } catch (IOException | RuntimeException e) {
+                fail(job, e);
+            }
+        }
+    }
+
+    // Imágenes grandes, de una en una: por franjas y sin pasar por las colas, para acotar la memoria
+    private void largeStage() throws InterruptedException {
+        for (Job job = largeJobs.take(); job != END; job = largeJobs.take()) {
+            try {
+                processLarge(job);
+            } catch (IOException | RuntimeException e) {
+                fail(job, e);
+            }
+        }
+    }
+
+    private void processLarge(Job job) throws IOException {
+        File target = FileManager.getUniqueFile(new File(outputDirectory, FileManager.getProcessedName(job.file)));
+        FileManager.writeAtomically(target, out -> LargeImageProcessor.process(job.file, chain, out, FileManager.getCompressionLevel()));
+        finish(job, target);
+    }
+
+    // Copia el resultado ya calculado (caché en disco o un archivo idéntico ya hecho), o deja el archivo
+    // esperando si es idéntico a uno que todavía se está procesando
+    private boolean reuse(Job job) throws IOException {
+        File result = cache.getFile(job.key);
+        if (result == null) {
+            synchronized (dedupeLock) {
+                result = results.get(job.key);
+                if (result == null) {
+                    List<Job> duplicates = waiting.get(job.key);
+                    if (duplicates == null) {
+                        waiting.put(job.key, new ArrayList<>());
+                        return false; // Este archivo es el original
+                    }
+                    duplicates.add(job);
+                    return true;
+                }
+            }
+            Metrics.increment("batch:duplicates");
+        }
+        copyResult(job, result);
+        return true;
+    }
+
+    // Resultado escrito: lo apunta en el manifiesto y la caché en disco, y se lo copia a los duplicados que esperaban
+    private void finish(Job job, File target) {
+        processed.incrementAndGet();
+        record(job, target);
+        try {
+            cache.putFile(job.key, target);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar en la caché: " + e.getMessage());
+        }
+
+        List<Job> duplicates;
+        synchronized (dedupeLock) {
+            results.put(job.key, target);
+            Iterator<File> it = results.values().iterator();
+            while (results.size() > MAX_RESULTS && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+            duplicates = waiting.remove(job.key);
+        }
+        for (Job duplicate : duplicates != null ? duplicates : List.<Job>of()) {
+            try {
+                copyResult(duplicate, target);
+                Metrics.increment("batch:duplicates");
+            } catch (IOException e) {
+                fail(duplicate.file, e);
+                release(duplicate.entry);
+            }
+        }
+    }
+
+    private void copyResult(Job job, File result) throws IOException {
+        File target = FileManager.getUniqueFile(new File(outputDirectory, FileManager.getProcessedName(job.file)));
+        FileManager.copyAtomically(result, target);
+        processed.incrementAndGet();
+        record(job, target);
+    }
+
+    // Un archivo que falla deja de estar en marcha y se puede reintentar (p. ej. si la vigilancia lo vuelve a ver)
+    private void release(String entry) {
+        if (entry == null) {
+            return;
+        }
+        Metrics.jobFinished();
+        if (manifest != null) {
+            manifest.release(entry);
+        }
+    }
+
+    private void record(Job job, File target) {
+        Metrics.jobFinished();
+        if (manifest == null) {
+            return;
+        }
+        try {
+            manifest.record(job.entry, target);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir el manifiesto: " + e.getMessage());
+        }
+    }
+
+    // Copia la imagen a un BufferedImage ARGB cuyo array usan directamente los kernels
+    private static BufferedImage toArgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_ARGB) {
+            return source;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BufferedImage argb = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        source.getRGB(0, 0, width, height, pixels(argb), 0, width);
+        return argb;
+    }
+
+    private static int[] pixels(BufferedImage argb) {
+        return ((DataBufferInt) argb.getRaster().getDataBuffer()).getData();
+    }
+
+    private void fail(File file, Exception e) {
+        failed.incrementAndGet();
+        System.err.println("Error procesando archivo: " + file.getName() + " (" + e.getMessage() + ")");
+    }
+
+    // Si falla un original, fallan también los duplicados que esperaban su resultado
+    private void fail(Job job, Exception e) {
+        fail(job.file, e);
+        release(job.entry);
+        List<Job> duplicates;
+        synchronized (dedupeLock) {
+            duplicates = waiting.remove(job.key);
+        }
+        if (duplicates != null) {
+            for (Job duplicate : duplicates) {
+                fail(duplicate.file, new IOException("Falló el archivo idéntico " + job.file.getName()));
+                release(duplicate.entry);
+            }
+        }
+    }
+
+    private static Thread startThread(String name, Stage stage) {
+        Thread thread = new Thread(() -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    // true si directory es parent o está dentro de él (rutas canónicas: resuelve enlaces y "..")
+    private static boolean isInside(File directory, File parent) throws IOException {
+        return directory.getCanonicalFile().toPath().startsWith(parent.getCanonicalFile().toPath());
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            usage("Falta el valor de " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Uso: java ImageEditorApp.Batch --in dir --out dir [--filters bw,brightness:1.2,invert,blur:2,boxblur:3,sharpen:1,edges] [--threads N] [--queue N] [--metrics archivo.json] [--cache | --cache-dir dir] [--watch] [--manifest archivo]");
+        System.exit(2);
+    }
+
+    // Etapa del pipeline
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws InterruptedException;
+    }
+
+    // Imagen en tránsito entre etapas
+    private static class Job {
+        final File file;
+        final BufferedImage image;
+        final String key; // Clave en la caché de resultados
+        final String entry; // Línea del manifiesto (nombre, tamaño y fecha al leerlo)
+        Metrics.Sample queueWait; // Espera en la cola actual
+
+        Job(File file, BufferedImage image, String key, String entry) {
+            this.file = file;
+            this.image = image;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        double megapixels() {
+            return image.getWidth() * (double) image.getHeight() / 1_000_000.0;
+        }
+    }
+}
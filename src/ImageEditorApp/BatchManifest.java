@@ -0,0 +1,94 @@
+package ImageEditorApp;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Registro de archivos ya procesados por Batch, solo se añaden líneas: nombre \t tamaño \t fecha \t salida
+// Al reiniciar se saltan los archivos que siguen igual; una línea a medias (corte) se ignora
+public class BatchManifest implements Closeable {
+
+    // Terminados que se recuerdan (LRU): con --watch la ejecución no acaba y el conjunto no puede crecer sin límite
+    private static final int MAX_COMPLETED = 100_000;
+
+    private final Map<String, Boolean> completed = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> claimed = new HashSet<>(); // En marcha ahora; se sueltan al apuntarlos o al fallar
+    private final BufferedWriter writer;
+
+    public BatchManifest(File file) throws IOException {
+        if (file.isFile()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4) {
+                    complete(fields[0] + "\t" + fields[1] + "\t" + fields[2]);
+                }
+            }
+        }
+        boolean cut = endsWithoutNewline(file);
+        writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (cut) {
+            writer.newLine(); // Cierra la línea cortada para no pegarle la siguiente
+            writer.flush();
+        }
+    }
+
+    // Reserva un archivo para procesarlo: devuelve su línea, o null si ya se terminó antes o ya está en marcha
+    // (la vigilancia puede avisar dos veces del mismo archivo)
+    public synchronized String claim(File source) {
+        String entry = entry(source);
+        return completed.get(entry) != null || !claimed.add(entry) ? null : entry;
+    }
+
+    // Suelta la reserva de un archivo que falló, para que pueda volver a intentarse
+    public synchronized void release(String entry) {
+        claimed.remove(entry);
+    }
+
+    // Apunta un archivo terminado; se escribe al momento para que un corte no pierda lo hecho
+    public synchronized void record(String entry, File output) throws IOException {
+        writer.write(entry + "\t" + output.getName());
+        writer.newLine();
+        writer.flush();
+        claimed.remove(entry);
+        complete(entry);
+    }
+
+    private void complete(String entry) {
+        completed.put(entry, Boolean.TRUE);
+        Iterator<String> it = completed.keySet().iterator();
+        while (completed.size() > MAX_COMPLETED && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    // Nombre, tamaño y fecha: si cambia cualquiera, el archivo se vuelve a procesar
+    static String entry(File source) {
+        return source.getName() + "\t" + source.length() + "\t" + source.lastModified();
+    }
+
+    private static boolean endsWithoutNewline(File file) throws IOException {
+        if (!file.isFile() || file.length() == 0) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() != '\n';
+        }
+    }
+}
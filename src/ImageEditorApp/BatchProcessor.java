@@ -0,0 +1,147 @@
+package ImageEditorApp;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+// Procesa una lista de archivos con un número máximo de trabajos en curso
+public class BatchProcessor {
+
+    private final Executor executor;
+    private final int maxInFlight;
+
+    public BatchProcessor(Executor executor, int maxInFlight) {
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    // Procesa todos los archivos y vuelve cuando han terminado o se ha interrumpido el hilo
+    public Result process(List<File> files, FileJob job, ProgressListener listener) throws InterruptedException {
+        CompletionService<Outcome> completion = new ExecutorCompletionService<>(executor);
+        Set<Future<Outcome>> inFlight = new HashSet<>();
+        long start = System.nanoTime();
+        int total = files.size();
+        int submitted = 0;
+        int processed = 0;
+        int failed = 0;
+
+        try {
+            while (submitted < total || !inFlight.isEmpty()) {
+                // Rellena la ventana antes de esperar
+                while (submitted < total && inFlight.size() < maxInFlight) {
+                    File file = files.get(submitted++);
+                    inFlight.add(completion.submit(() -> {
+                        Metrics.jobStarted();
+                        try {
+                            job.process(file);
+                            return new Outcome(file, null);
+                        } catch (Exception e) {
+                            return new Outcome(file, e);
+                        } finally {
+                            Metrics.jobFinished();
+                        }
+                    }));
+                }
+
+                Future<Outcome> done = completion.take();
+                inFlight.remove(done);
+                Outcome outcome = getOutcome(done);
+                if (outcome.error == null) {
+                    processed++;
+                } else {
+                    failed++;
+                    listener.onFailure(outcome.file, outcome.error);
+                }
+
+                listener.onProgress(new Result(processed, failed, total, (System.nanoTime() - start) / 1e9));
+            }
+        } finally {
+            // Si se cancela, se descartan los trabajos pendientes
+            for (Future<Outcome> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+
+        return new Result(processed, failed, total, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static Outcome getOutcome(Future<Outcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // El trabajo captura sus excepciones: solo llega aquí un Error
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Trabajo a realizar con cada archivo
+    @FunctionalInterface
+    public interface FileJob {
+        void process(File file) throws Exception;
+    }
+
+    // Avisos de progreso y errores
+    public interface ProgressListener {
+        void onProgress(Result progress);
+
+        default void onFailure(File file, Throwable error) {
+        }
+    }
+
+    // Resultado de un archivo
+    private static class Outcome {
+        final File file;
+        final Exception error;
+
+        Outcome(File file, Exception error) {
+            this.file = file;
+            this.error = error;
+        }
+    }
+
+    // Estado del lote
+    public static class Result {
+        private final int processed;
+        private final int failed;
+        private final int total;
+        private final double seconds;
+
+        Result(int processed, int failed, int total, double seconds) {
+            this.processed = processed;
+            this.failed = failed;
+            this.total = total;
+            this.seconds = seconds;
+        }
+
+        public int getProcessed() {
+            return processed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getCompleted() {
+            return processed + failed;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+
+        // Imágenes por segundo
+        public double getThroughput() {
+            return seconds > 0 ? processed / seconds : 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ImageEditorApp;
+
+import java.util.concurrent.CancellationException;
+
+// Aviso de cancelación compartido entre quien pide un trabajo y el hilo que lo ejecuta
+// El trabajo lo comprueba en puntos seguros (entre franjas y entre etapas de la cadena)
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Lanza CancellationException si ya se ha cancelado
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Trabajo cancelado");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ImageEditorApp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Cadena compilada: tramos de operaciones puntuales fusionados en un kernel, separados por filtros de vecindad
+public class CompiledChain {
+
+    private final List<NeighborhoodKernel> stages;
+    private final int radius;
+
+    CompiledChain(List<NeighborhoodKernel> stages) {
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+        this.radius = stages.stream().mapToInt(NeighborhoodKernel::getRadius).sum();
+    }
+
+    // Tramo puntual como etapa de radio 0 (se puede aplicar en el sitio)
+    static NeighborhoodKernel pointStage(PixelKernel kernel) {
+        return new NeighborhoodKernel() {
+            @Override
+            public int getRadius() {
+                return 0;
+            }
+
+            @Override
+            public void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow) {
+                kernel.apply(src, dst, fromRow * width, toRow * width);
+            }
+        };
+    }
+
+    // Filas de halo que necesita la cadena completa (suma de los radios)
+    public int getRadius() {
+        return radius;
+    }
+
+    // Aplica la cadena con PixelEngine (en paralelo si la imagen es grande); src y dst pueden ser el mismo array
+    public void run(int[] src, int[] dst, int width, int height) {
+        run(src, dst, width, height, true);
+    }
+
+    // Igual, en el hilo actual (p. ej. cuando ya se procesan varias imágenes en paralelo)
+    public void runSequential(int[] src, int[] dst, int width, int height) {
+        run(src, dst, width, height, false);
+    }
+
+    private void run(int[] src, int[] dst, int width, int height, boolean parallel) {
+        int[] current = src;
+        int[] spare = null;
+        for (NeighborhoodKernel stage : stages) {
+            Scheduler.checkCancelled(); // Una petición más nueva de la misma pestaña descarta esta
+            int[] target;
+            if (stage.getRadius() == 0 && (current != src || src == dst)) {
+                target = current; // Puntual: en el sitio, nunca sobre una entrada de solo lectura
+            } else if (current != dst) {
+                target = dst;
+            } else {
+                if (spare == null) {
+                    spare = new int[current.length];
+                }
+                target = spare; // Vecindad: lee y escribe en arrays distintos
+            }
+
+            if (parallel) {
+                PixelEngine.run(stage, current, target, width, height);
+            } else {
+                stage.apply(current, target, width, height, 0, height);
+            }
+            current = target;
+        }
+        if (current != dst) {
+            System.arraycopy(current, 0, dst, 0, width * height);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ImageEditorApp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Historial de deshacer/rehacer: guarda las operaciones y una instantánea cada N pasos
+public class EditHistory {
+
+    private static final int SNAPSHOT_INTERVAL = 4;
+
+    private final List<FilterOp> ops = new ArrayList<>();
+    private final int[] basePixels;
+    private final int width;
+    private final int height;
+    private final double scale; // Vista previa / original, para ajustar los radios de vecindad
+    private final SnapshotStore store;
+    private final ResultCache cache;
+    private String baseHash; // Hash de los píxeles de partida, para la caché de resultados
+    private int position;
+
+    public EditHistory(int[] basePixels, int width, int height, double scale, SnapshotStore store, ResultCache cache) {
+        this.basePixels = basePixels;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+        this.store = store;
+        this.cache = cache;
+    }
+
+    // Añade una operación y descarta lo que hubiera para rehacer
+    // Si el cálculo falla o se cancela, el historial queda como estaba (las instantáneas descartadas se recalculan)
+    public synchronized int[] push(FilterOp op) {
+        List<FilterOp> discarded = new ArrayList<>(ops.subList(position, ops.size()));
+        if (!discarded.isEmpty()) {
+            ops.subList(position, ops.size()).clear();
+            store.removeAfter(this, position);
+        }
+        ops.add(op);
+        position++;
+        try {
+            return render();
+        } catch (RuntimeException e) {
+            ops.remove(--position);
+            ops.addAll(discarded);
+            throw e;
+        }
+    }
+
+    public synchronized int[] undo() {
+        return moveTo(canUndo() ? position - 1 : position);
+    }
+
+    public synchronized int[] redo() {
+        return moveTo(canRedo() ? position + 1 : position);
+    }
+
+    // Restaura una lista de operaciones (p. ej. al recargar una pestaña liberada) y calcula solo el resultado final
+    public synchronized int[] replay(List<FilterOp> restored) {
+        ops.clear();
+        store.removeAll(this);
+        ops.addAll(restored);
+        position = ops.size();
+        return render();
+    }
+
+    // Vuelve al original manteniendo las operaciones para rehacer
+    public synchronized int[] reset() {
+        position = 0;
+        return basePixels;
+    }
+
+    public synchronized boolean canUndo() {
+        return position > 0;
+    }
+
+    public synchronized boolean canRedo() {
+        return position < ops.size();
+    }
+
+    // Cadena de operaciones aplicadas hasta el paso actual
+    public synchronized FilterChain getChain() {
+        return FilterChain.of(ops.subList(0, position).toArray(new FilterOp[0]));
+    }
+
+    // Libera las instantáneas de este historial
+    public void release() {
+        store.removeAll(this);
+    }
+
+    // Cambia de paso y calcula su resultado; si falla o se cancela se queda en el paso anterior
+    private int[] moveTo(int target) {
+        int previous = position;
+        position = target;
+        try {
+            return render();
+        } catch (RuntimeException e) {
+            position = previous;
+            throw e;
+        }
+    }
+
+    // Busca el resultado en la caché; si no está, parte de la instantánea más cercana y aplica solo las operaciones restantes
+    private int[] render() {
+        if (position == 0) {
+            return basePixels;
+        }
+        if (baseHash == null) {
+            baseHash = ResultCache.pixelHash(basePixels, width, height);
+        }
+        String key = ResultCache.key(baseHash, FilterChain.of(ops.subList(0, position).toArray(new FilterOp[0])),
+                "preview@" + scale);
+        int[] cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int from = position - position % SNAPSHOT_INTERVAL;
+        int[] source = null;
+        while (from > 0 && (source = store.get(this, from, basePixels.length)) == null) {
+            from -= SNAPSHOT_INTERVAL;
+        }
+        if (source == null) {
+            source = basePixels;
+        }
+        if (from == position) {
+            cache.put(key, source);
+            return source;
+        }
+
+        FilterChain remaining = FilterChain.of(ops.subList(from, position).toArray(new FilterOp[0]));
+        int[] pixels = new int[basePixels.length];
+        remaining.compile(scale).run(source, pixels, width, height);
+        if (position % SNAPSHOT_INTERVAL == 0) {
+            store.put(this, position, pixels);
+        }
+        cache.put(key, pixels);
+        return pixels;
+    }
+}
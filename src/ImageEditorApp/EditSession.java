@@ -0,0 +1,184 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+
+// Estado de edición de una pestaña: vista previa reducida e historial de filtros
+public class EditSession {
+
+    private final File file;
+    private final Image preview;
+    private final EditHistory history;
+    private final boolean large; // Demasiado grande para decodificarla entera: se guarda por franjas
+    private CancellationToken pending; // Última petición de filtro de la pestaña
+
+    public EditSession(File file, Image preview) {
+        this.file = file;
+        this.preview = preview;
+        this.large = LargeImageProcessor.isLarge(file);
+        this.history = new EditHistory(PixelEngine.readPixels(preview), (int) preview.getWidth(), (int) preview.getHeight(),
+                previewScale(file, preview), SnapshotStore.getInstance(), ResultCache.getInstance());
+    }
+
+    // Decodifica directamente a tamaño reducido, sin pasar por la resolución completa
+    public static Image loadPreview(File file, double width, double height) throws Exception {
+        if (LargeImageProcessor.isLarge(file)) {
+            return LargeImageProcessor.loadOverview(file, width, height);
+        }
+        try (Metrics.Sample sample = Metrics.start("decode:preview")) {
+            Image image = new Image(file.toURI().toString(), width, height, true, true, false);
+            if (image.isError()) {
+                throw image.getException();
+            }
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    // Decodifica la imagen original a resolución completa
+    public static Image loadFullResolution(File file) throws Exception {
+        try (Metrics.Sample sample = Metrics.start("decode")) {
+            Image image = new Image(file.toURI().toString());
+            if (image.isError()) {
+                throw image.getException();
+            }
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public FilterChain getChain() {
+        return history.getChain();
+    }
+
+    // Añade el filtro al historial y lo aplica sobre la vista previa
+    public Image apply(FilterOp op) {
+        try (Metrics.Sample sample = Metrics.start("filter:" + op.getKey())) {
+            Image image = toImage(history.push(op));
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    // Vuelve a aplicar los filtros que tenía la pestaña antes de liberar sus píxeles
+    public Image replay(FilterChain chain) {
+        if (chain.isEmpty()) {
+            return preview;
+        }
+        try (Metrics.Sample sample = Metrics.start("replay")) {
+            Image image = toImage(history.replay(chain.getOps()));
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    public Image undo() {
+        try (Metrics.Sample sample = Metrics.start("undo")) {
+            Image image = toImage(history.undo());
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    public Image redo() {
+        try (Metrics.Sample sample = Metrics.start("redo")) {
+            Image image = toImage(history.redo());
+            sample.stop(megapixels(image));
+            return image;
+        }
+    }
+
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    // Vuelve a la imagen original (se puede rehacer)
+    public Image restore() {
+        history.reset();
+        return preview;
+    }
+
+    // Nueva petición de filtro: cancela la anterior si aún se está calculando
+    public synchronized CancellationToken newRequest() {
+        if (pending != null) {
+            pending.cancel();
+        }
+        pending = new CancellationToken();
+        return pending;
+    }
+
+    // La petición sigue siendo la última de la pestaña
+    public synchronized boolean isLatest(CancellationToken token) {
+        return pending == token;
+    }
+
+    // Cancela lo pendiente y libera las instantáneas al cerrar la pestaña
+    public void close() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel();
+            }
+        }
+        history.release();
+    }
+
+    // Escribe el resultado a resolución completa; si ya se calculó (mismo archivo y cadena), copia el PNG de la caché
+    public void writeFullResolution(File target) throws Exception {
+        ResultCache cache = ResultCache.getInstance();
+        FilterChain chain = getChain();
+        String key = ResultCache.key(ResultCache.fileHash(file), chain, large ? "full:bands" : "full:fx");
+        File cached = cache.getFile(key);
+        if (cached != null) {
+            FileManager.copyAtomically(cached, target);
+            return;
+        }
+
+        if (large) {
+            int level = FileManager.getCompressionLevel();
+            FileManager.writeAtomically(target, out -> LargeImageProcessor.process(file, chain, out, level));
+        } else {
+            FileManager.writePng(FileManager.toBufferedImage(render(chain)), target);
+        }
+        cache.putFile(key, target);
+    }
+
+    // Repite la cadena sobre la imagen a resolución completa (solo al guardar)
+    private Image render(FilterChain chain) throws Exception {
+        Image fullImage = loadFullResolution(file);
+        try (Metrics.Sample sample = Metrics.start("filter:chain")) {
+            Image result = chain.apply(fullImage);
+            sample.stop(megapixels(fullImage));
+            return result;
+        }
+    }
+
+    // Proporción entre la vista previa y el original (lee solo la cabecera)
+    private static double previewScale(File file, Image preview) {
+        try {
+            Dimension size = LargeImageProcessor.getSize(file);
+            return Math.min(1.0, preview.getWidth() / size.width);
+        } catch (IOException e) {
+            return 1.0;
+        }
+    }
+
+    // Muestra el resultado del historial sin copiarlo (los arrays del historial y la caché no se modifican)
+    private Image toImage(int[] pixels) {
+        return PixelImages.wrap(pixels, (int) preview.getWidth(), (int) preview.getHeight());
+    }
+
+    static double megapixels(Image image) {
+        return image.getWidth() * image.getHeight() / 1_000_000.0;
+    }
+}
@@ -1,21 +1,64 @@
 package ImageEditorApp;
 
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
 import javafx.stage.FileChooser;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FileManager {
 
     // Directorio por defecto
     private static final File defaultSaveDirectory = new File(System.getProperty("user.home"), "ProcessedImages");
 
-    // Guarda imagen procesada
-    public static void saveImage(File originalFile, Image image) throws Exception {
-        
+    // Los guardados van al ejecutor de E/S; las franjas que calculen pasan por detrás de los filtros interactivos
+    private static final Executor saveExecutor = Scheduler.getInstance().ioExecutor(Scheduler.Priority.BATCH);
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static volatile int compressionLevel = 4; // 0 = más rápido, 9 = más pequeño (4 es el valor por defecto de ImageIO)
+
+    // Cola de guardado
+    private static final AtomicInteger pendingSaves = new AtomicInteger();
+    private static final Object savesDone = new Object(); // Se avisa cada vez que termina un guardado
+    private static volatile boolean closing; // Al cerrar la aplicación ya no se aceptan guardados nuevos
+    private static volatile SaveListener saveListener = pending -> { };
+
+    // Guarda imagen procesada: elige el destino en el hilo de JavaFX y codifica en segundo plano
+    public static CompletableFuture<File> saveImage(File originalFile, Image image) throws IOException {
+        return saveImage(originalFile, target -> writePng(toBufferedImage(image), target));
+    }
+
+    // Igual, pero el contenido se genera también en segundo plano (p. ej. a resolución completa o desde la caché)
+    public static CompletableFuture<File> saveImage(File originalFile, TargetWriter writer) throws IOException {
+        if (closing) {
+            throw new IOException("La aplicación se está cerrando");
+        }
+        File saveFile = getUniqueFile(chooseSaveFile(originalFile));
+        return submit(saveFile, () -> writer.write(saveFile));
+    }
+
+    // Diálogo de guardado
+    public static File chooseSaveFile(File originalFile) {
         if (!defaultSaveDirectory.exists()) {
             defaultSaveDirectory.mkdir();
         }
@@ -23,28 +66,202 @@ public class FileManager {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Guardar Imagen");
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Imágenes PNG", "*.png"));
-        fileChooser.setInitialFileName(originalFile.getName().replaceFirst("\\.\\w+$", "") + "_processed.png");
+        fileChooser.setInitialFileName(getProcessedName(originalFile));
         fileChooser.setInitialDirectory(defaultSaveDirectory);
 
         File saveFile = fileChooser.showSaveDialog(null);
         if (saveFile == null) {
-            saveFile = new File(defaultSaveDirectory, originalFile.getName().replaceFirst("\\.\\w+$", "") + "_processed.png");
+            saveFile = new File(defaultSaveDirectory, getProcessedName(originalFile));
+        }
+        return saveFile;
+    }
+
+    // Encola el guardado en un archivo ya reservado
+    private static CompletableFuture<File> submit(File target, SaveTask task) throws IOException {
+        saveListener.onQueueChanged(pendingSaves.incrementAndGet());
+        Metrics.Sample queueWait = Metrics.start("queue-wait:save");
+        CompletableFuture<File> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                queueWait.stop();
+                try {
+                    task.run();
+                    return target;
+                } catch (Exception e) {
+                    try {
+                        Files.deleteIfExists(target.toPath()); // Libera el nombre reservado
+                    } catch (IOException ignored) {
+                    }
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }, saveExecutor);
+        } catch (RuntimeException e) {
+            queueWait.close(); // El ejecutor rechazó la tarea
+            Files.deleteIfExists(target.toPath());
+            saveDone();
+            throw e;
+        }
+        return future.whenComplete((file, error) -> saveDone());
+    }
+
+    private static void saveDone() {
+        saveListener.onQueueChanged(pendingSaves.decrementAndGet());
+        synchronized (savesDone) {
+            savesDone.notifyAll();
+        }
+    }
+
+    // Deja de aceptar guardados y espera a los pendientes (los hilos del planificador son daemon: la JVM no los espera)
+    // Devuelve false si se agota el tiempo con guardados aún en marcha
+    public static boolean shutdown(long timeoutMillis) throws InterruptedException {
+        closing = true;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (savesDone) {
+            while (pendingSaves.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                savesDone.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    // Escribe un PNG con ImageIO de forma atómica
+    public static void writePng(BufferedImage image, File target) throws IOException {
+        Metrics.Sample sample = Metrics.start("encode");
+        try {
+            writeAtomically(target, out -> {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (param.canWriteCompressed()) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    // El escritor PNG usa nivel = (int) (9 * (1 - calidad))
+                    param.setCompressionQuality(Math.max(0.0f, 1.0f - (compressionLevel + 0.5f) / 9.0f));
+                }
+                try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                    writer.setOutput(imageOut);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            });
+        } finally {
+            sample.stop(image.getWidth() * (double) image.getHeight() / 1_000_000.0);
         }
+    }
 
-        saveFile = getUniqueFile(saveFile);
-        ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", new FileOutputStream(saveFile));
+    // Escribe en un temporal con un canal NIO con búfer y lo mueve de forma atómica al destino
+    // Si falla, borra el temporal y también el destino si solo era el archivo vacío reservado por getUniqueFile
+    public static void writeAtomically(File target, StreamWriter content) throws IOException {
+        Path targetPath = target.toPath().toAbsolutePath();
+        Path temp = targetPath.resolveSibling("." + target.getName() + ".tmp"); // Único: el destino ya está reservado
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE)) {
+                content.write(out);
+            }
+
+            try {
+                Files.move(temp, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+        } finally {
+            Files.deleteIfExists(temp);
+            if (!moved && Files.isRegularFile(targetPath) && Files.size(targetPath) == 0) {
+                Files.deleteIfExists(targetPath);
+            }
+        }
     }
 
-    // Verifica existencia del nombre
-    public static File getUniqueFile(File file) {
+    // Copia un archivo ya codificado (p. ej. de la caché de resultados) de forma atómica
+    public static void copyAtomically(File source, File target) throws IOException {
+        writeAtomically(target, out -> Files.copy(source.toPath(), out));
+    }
+
+    // BufferedImage para el codificador: comparte el array si la imagen viene de PixelImages, si no copia los píxeles una vez
+    public static BufferedImage toBufferedImage(Image image) {
+        BufferedImage shared = PixelImages.toBufferedImage(image);
+        if (shared != null) {
+            Metrics.increment("convert:shared");
+            return shared;
+        }
+        try (Metrics.Sample sample = Metrics.start("convert")) {
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+            BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) buffered.getRaster().getDataBuffer()).getData();
+            System.arraycopy(PixelEngine.readPixels(image), 0, pixels, 0, pixels.length);
+            sample.stop(width * (double) height / 1_000_000.0);
+            return buffered;
+        }
+    }
+
+    // Nivel de compresión PNG (0-9)
+    public static void setCompressionLevel(int level) {
+        compressionLevel = Math.max(0, Math.min(9, level));
+    }
+
+    public static int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    // Aviso de cambios en la cola de guardado (desde hilos de trabajo)
+    public static void setSaveListener(SaveListener listener) {
+        saveListener = listener;
+    }
+
+    public static int getPendingSaves() {
+        return pendingSaves.get();
+    }
+
+    // Nombre de salida para una imagen procesada
+    public static String getProcessedName(File originalFile) {
+        return originalFile.getName().replaceFirst("\\.\\w+$", "") + "_processed.png";
+    }
+
+    // Reserva un nombre libre creando el archivo de forma atómica
+    public static File getUniqueFile(File file) throws IOException {
         String name = file.getName();
         String baseName = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
         String extension = name.contains(".") ? name.substring(name.lastIndexOf('.')) : "";
         File uniqueFile = file;
         int counter = 1;
-        while (uniqueFile.exists()) {
-            uniqueFile = new File(file.getParent(), baseName + "_" + counter++ + extension);
+        while (true) {
+            try {
+                Files.createFile(uniqueFile.toPath());
+                return uniqueFile;
+            } catch (FileAlreadyExistsException e) {
+                uniqueFile = new File(file.getParent(), baseName + "_" + counter++ + extension);
+            }
         }
-        return uniqueFile;
+    }
+
+    // Escritura del contenido de un archivo
+    @FunctionalInterface
+    public interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // Escribe el archivo de destino ya reservado
+    @FunctionalInterface
+    public interface TargetWriter {
+        void write(File target) throws Exception;
+    }
+
+    // Trabajo de guardado en segundo plano
+    @FunctionalInterface
+    private interface SaveTask {
+        void run() throws Exception;
+    }
+
+    // Escucha de la cola de guardado
+    @FunctionalInterface
+    public interface SaveListener {
+        void onQueueChanged(int pending);
     }
 }
@@ -0,0 +1,171 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Secuencia inmutable de filtros: las operaciones puntuales consecutivas se ejecutan en una sola pasada
+public class FilterChain {
+
+    private static final FilterChain EMPTY = new FilterChain(List.of());
+
+    private final List<FilterOp> ops;
+    private CompiledChain compiled;
+
+    private FilterChain(List<FilterOp> ops) {
+        this.ops = ops;
+    }
+
+    public static FilterChain empty() {
+        return EMPTY;
+    }
+
+    public static FilterChain of(FilterOp... ops) {
+        FilterChain chain = EMPTY;
+        for (FilterOp op : ops) {
+            chain = chain.then(op);
+        }
+        return chain;
+    }
+
+    // Interpreta una lista como "bw,brightness:1.2,blur:2,invert"
+    public static FilterChain parse(String spec) {
+        FilterChain chain = EMPTY;
+        if (spec == null || spec.isBlank()) {
+            return chain;
+        }
+        for (String token : spec.split(",")) {
+            String[] parts = token.trim().split(":", 2);
+            String name = parts[0].trim().toLowerCase();
+            switch (name) {
+                case "bw":
+                case "blackandwhite":
+                    chain = chain.blackAndWhite();
+                    break;
+                case "invert":
+                    chain = chain.invertColors();
+                    break;
+                case "brightness":
+                    chain = chain.brightness(parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1.2);
+                    break;
+                case "blur":
+                    chain = chain.gaussianBlur(parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 2.0);
+                    break;
+                case "boxblur":
+                    chain = chain.boxBlur(parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 3);
+                    break;
+                case "sharpen":
+                    chain = chain.sharpen(parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1.0);
+                    break;
+                case "edges":
+                    chain = chain.edges();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Filtro desconocido: " + token);
+            }
+        }
+        return chain;
+    }
+
+    // Nueva cadena con la operación añadida al final
+    public FilterChain then(FilterOp op) {
+        List<FilterOp> newOps = new ArrayList<>(ops);
+        newOps.add(op);
+        return new FilterChain(Collections.unmodifiableList(newOps));
+    }
+
+    public FilterChain blackAndWhite() {
+        return then(FilterOps.blackAndWhite());
+    }
+
+    public FilterChain invertColors() {
+        return then(FilterOps.invertColors());
+    }
+
+    public FilterChain brightness(double factor) {
+        return then(FilterOps.brightness(factor));
+    }
+
+    public FilterChain gaussianBlur(double sigma) {
+        return then(FilterOps.gaussianBlur(sigma));
+    }
+
+    public FilterChain boxBlur(int radius) {
+        return then(FilterOps.boxBlur(radius));
+    }
+
+    public FilterChain sharpen(double amount) {
+        return then(FilterOps.sharpen(amount));
+    }
+
+    public FilterChain edges() {
+        return then(FilterOps.edges());
+    }
+
+    public List<FilterOp> getOps() {
+        return ops;
+    }
+
+    public boolean isEmpty() {
+        return ops.isEmpty();
+    }
+
+    // Clave con las operaciones y sus parámetros, p. ej. "bw,brightness:1.2"
+    public String getKey() {
+        return ops.stream().map(FilterOp::getKey).collect(Collectors.joining(","));
+    }
+
+    // Compila la cadena a resolución completa
+    public synchronized CompiledChain compile() {
+        if (compiled == null) {
+            compiled = compile(1.0);
+        }
+        return compiled;
+    }
+
+    // Fusiona cada tramo de operaciones puntuales en un kernel; los radios de vecindad se multiplican por scale
+    public CompiledChain compile(double scale) {
+        List<NeighborhoodKernel> stages = new ArrayList<>();
+        PointProgram.Builder program = null;
+        for (FilterOp op : ops) {
+            if (op instanceof PointOp) {
+                if (program == null) {
+                    program = new PointProgram.Builder();
+                }
+                ((PointOp) op).appendTo(program);
+            } else if (op instanceof NeighborhoodOp) {
+                if (program != null) {
+                    stages.add(CompiledChain.pointStage(KernelBackends.get().program(program.build())));
+                    program = null;
+                }
+                stages.add(((NeighborhoodOp) op).neighborhood(scale));
+            } else {
+                throw new IllegalArgumentException("Operación desconocida: " + op.getKey());
+            }
+        }
+        if (program != null) {
+            stages.add(CompiledChain.pointStage(KernelBackends.get().program(program.build())));
+        }
+        return new CompiledChain(stages);
+    }
+
+    // Aplica la cadena completa
+    public Image apply(Image inputImage) {
+        if (ops.isEmpty()) {
+            return inputImage;
+        }
+        int width = (int) inputImage.getWidth();
+        int height = (int) inputImage.getHeight();
+        int[] pixels = PixelEngine.readPixels(inputImage);
+        compile().run(pixels, pixels, width, height);
+        return PixelImages.wrap(pixels, width, height); // El mismo array llega después al codificador
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
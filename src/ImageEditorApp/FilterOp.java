@@ -0,0 +1,11 @@
+package ImageEditorApp;
+
+// Operación de filtro que puede encadenarse en un FilterChain: puntual (PointOp) o de vecindad (NeighborhoodOp)
+public interface FilterOp {
+
+    // Nombre visible en el historial
+    String getName();
+
+    // Clave estable con el tipo y los parámetros, p. ej. "brightness:1.2"
+    String getKey();
+}
@@ -0,0 +1,128 @@
+package ImageEditorApp;
+
+public class FilterOps {
+
+    private static final double SHARPEN_SIGMA = 1.0;
+
+    // Blanco y negro
+    public static PointOp blackAndWhite() {
+        return new Point("Blanco y Negro", "bw") {
+            @Override
+            public void appendTo(PointProgram.Builder program) {
+                program.gray();
+            }
+        };
+    }
+
+    // Inversión de color
+    public static PointOp invertColors() {
+        return new Point("Invertir Colores", "invert") {
+            @Override
+            public void appendTo(PointProgram.Builder program) {
+                int[] lut = new int[256];
+                for (int i = 0; i < 256; i++) {
+                    lut[i] = 255 - i;
+                }
+                program.lut(lut, lut, lut);
+            }
+        };
+    }
+
+    // Aumento de brillo
+    public static PointOp brightness(double factor) {
+        int[] lut = PixelKernels.brightnessLut(factor);
+        return new Point("Brillo x" + factor, "brightness:" + factor) {
+            @Override
+            public void appendTo(PointProgram.Builder program) {
+                program.lut(lut, lut, lut);
+            }
+        };
+    }
+
+    // Desenfoque gaussiano (sigma en píxeles de la imagen original)
+    public static NeighborhoodOp gaussianBlur(double sigma) {
+        NeighborhoodKernels.gaussianWeights(sigma); // Valida el parámetro al crear la operación
+        return new Neighborhood("Desenfoque x" + sigma, "blur:" + sigma) {
+            @Override
+            public NeighborhoodKernel neighborhood(double scale) {
+                return NeighborhoodKernels.gaussianBlur(sigma * scale);
+            }
+        };
+    }
+
+    // Desenfoque de caja de lado 2 * radius + 1
+    public static NeighborhoodOp boxBlur(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radio negativo: " + radius);
+        }
+        return new Neighborhood("Desenfoque de caja r" + radius, "boxblur:" + radius) {
+            @Override
+            public NeighborhoodKernel neighborhood(double scale) {
+                return NeighborhoodKernels.boxBlur((int) Math.round(radius * scale));
+            }
+        };
+    }
+
+    // Enfoque (máscara de desenfoque con sigma 1)
+    public static NeighborhoodOp sharpen(double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Intensidad negativa: " + amount);
+        }
+        return new Neighborhood("Enfoque x" + amount, "sharpen:" + amount) {
+            @Override
+            public NeighborhoodKernel neighborhood(double scale) {
+                return NeighborhoodKernels.sharpen(amount, SHARPEN_SIGMA * scale);
+            }
+        };
+    }
+
+    // Detección de bordes (Sobel); no depende de la escala
+    public static NeighborhoodOp edges() {
+        return new Neighborhood("Bordes", "edges") {
+            @Override
+            public NeighborhoodKernel neighborhood(double scale) {
+                return NeighborhoodKernels.edges();
+            }
+        };
+    }
+
+    // Base de los filtros puntuales
+    private abstract static class Point extends Op implements PointOp {
+        Point(String name, String key) {
+            super(name, key);
+        }
+    }
+
+    // Base de los filtros de vecindad
+    private abstract static class Neighborhood extends Op implements NeighborhoodOp {
+        Neighborhood(String name, String key) {
+            super(name, key);
+        }
+    }
+
+    // Base con nombre y clave
+    private abstract static class Op implements FilterOp {
+        private final String name;
+        private final String key;
+
+        Op(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ImageEditorApp;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Carpeta vigilada con WatchService: entrega cada imagen nueva cuando lleva un tiempo sin cambiar (copia terminada)
+// No es segura entre hilos: la usa solo el hilo que lee
+public class HotFolder implements Closeable {
+
+    private static final String IMAGE_PATTERN = "*.{png,jpg,PNG,JPG,jpeg,JPEG}";
+
+    private final Path directory;
+    private final WatchService watcher;
+    private final long quietNanos;
+    private final Map<Path, Candidate> candidates = new LinkedHashMap<>(); // Archivos que aún pueden estar escribiéndose
+    private final ArrayDeque<File> ready = new ArrayDeque<>();
+
+    // Empieza a vigilar antes de listar, para no perder archivos que lleguen entre medias
+    public HotFolder(File directory, long quietMillis) throws IOException {
+        this.directory = directory.toPath();
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.watcher = FileSystems.getDefault().newWatchService();
+        this.directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        scan();
+    }
+
+    // Siguiente archivo terminado, esperando como mucho timeout; null si no llega ninguno
+    public File poll(long timeout, TimeUnit unit) throws InterruptedException, IOException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (ready.isEmpty()) {
+            checkCandidates();
+            if (!ready.isEmpty()) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            // Con candidatos pendientes se despierta a menudo para comprobar si ya están quietos
+            long wait = candidates.isEmpty() ? remaining : Math.min(remaining, quietNanos / 4 + 1);
+            WatchKey key = watcher.poll(wait, TimeUnit.NANOSECONDS);
+            while (key != null) {
+                handle(key);
+                key = watcher.poll();
+            }
+        }
+        return ready.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+
+    public static boolean isImage(Path path) {
+        return path.getFileSystem().getPathMatcher("glob:" + IMAGE_PATTERN).matches(path.getFileName());
+    }
+
+    // Lista lo que ya hay (al empezar y si el sistema pierde eventos)
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, IMAGE_PATTERN)) {
+            for (Path path : files) {
+                touch(path);
+            }
+        }
+    }
+
+    private void handle(WatchKey key) throws IOException {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                scan();
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (isImage(path)) {
+                touch(path);
+            }
+        }
+        if (!key.reset()) {
+            throw new IOException("La carpeta vigilada ya no existe: " + directory);
+        }
+    }
+
+    // Cada evento reinicia la espera del archivo
+    private void touch(Path path) {
+        candidates.computeIfAbsent(path, p -> new Candidate()).changedAt = System.nanoTime();
+    }
+
+    // Pasa a listos los archivos cuyo tamaño y fecha no han cambiado durante el tiempo de espera
+    private void checkCandidates() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Candidate>> it = candidates.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Candidate> entry = it.next();
+            File file = entry.getKey().toFile();
+            Candidate candidate = entry.getValue();
+            if (!file.isFile()) {
+                it.remove(); // Borrado o renombrado antes de terminar
+                continue;
+            }
+            long size = file.length();
+            long modified = file.lastModified();
+            if (size != candidate.size || modified != candidate.modified) {
+                candidate.size = size;
+                candidate.modified = modified;
+                candidate.changedAt = now;
+            } else if (size > 0 && now - candidate.changedAt >= quietNanos) {
+                ready.add(file);
+                it.remove();
+            }
+        }
+    }
+
+    // Último tamaño y fecha vistos de un archivo
+    private static class Candidate {
+        long size = -1;
+        long modified = -1;
+        long changedAt;
+    }
+}
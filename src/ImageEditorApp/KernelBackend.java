@@ -0,0 +1,14 @@
+package ImageEditorApp;
+
+// Implementación de los kernels puntuales (escalar o vectorial)
+public interface KernelBackend {
+
+    String getName();
+
+    PixelKernel blackAndWhite();
+
+    PixelKernel invertColors();
+
+    // Ejecuta un programa fusionado de tablas y luma
+    PixelKernel program(PointProgram program);
+}
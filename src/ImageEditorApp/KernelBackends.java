@@ -0,0 +1,92 @@
+package ImageEditorApp;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Elige en tiempo de ejecución el backend de kernels: vectorial si está disponible y coincide con el escalar
+public class KernelBackends {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_BACKEND = "ImageEditorApp.VectorBackend"; // Compilado desde src-vector
+
+    private static final KernelBackend SCALAR = new ScalarBackend();
+    private static final KernelBackend VECTOR = loadVector();
+    private static volatile KernelBackend current = VECTOR != null ? VECTOR : SCALAR;
+
+    public static KernelBackend get() {
+        return current;
+    }
+
+    public static KernelBackend scalar() {
+        return SCALAR;
+    }
+
+    // Backend vectorial, o null si no está disponible o no ha superado la comprobación
+    public static KernelBackend vector() {
+        return VECTOR;
+    }
+
+    // Fuerza un backend (afecta a las cadenas que se compilen después)
+    public static void set(KernelBackend backend) {
+        current = backend;
+    }
+
+    // Carga la clase vectorial solo si el módulo incubador está en el arranque (--add-modules jdk.incubator.vector)
+    private static KernelBackend loadVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            KernelBackend vector = (KernelBackend) Class.forName(VECTOR_BACKEND).getDeclaredConstructor().newInstance();
+            if (matchesScalar(vector)) {
+                return vector;
+            }
+            System.err.println("Kernels vectoriales descartados: no coinciden con los escalares");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Clase no compilada o módulo no accesible: se queda el escalar
+        }
+        return null;
+    }
+
+    // Compara cada filtro y varias cadenas con el backend escalar sobre datos sintéticos
+    public static boolean matchesScalar(KernelBackend candidate) {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] src = new int[4099]; // No múltiplo de ningún ancho vectorial
+        for (int i = 0; i < src.length; i++) {
+            src[i] = random.nextInt();
+        }
+
+        if (!sameOutput(SCALAR.blackAndWhite(), candidate.blackAndWhite(), src)
+                || !sameOutput(SCALAR.invertColors(), candidate.invertColors(), src)) {
+            return false;
+        }
+        PointOp[][] chains = {
+                {FilterOps.brightness(1.2)},
+                {FilterOps.blackAndWhite()},
+                {FilterOps.invertColors()},
+                {FilterOps.blackAndWhite(), FilterOps.brightness(1.2), FilterOps.invertColors()},
+                {FilterOps.brightness(0.7), FilterOps.blackAndWhite(), FilterOps.invertColors(), FilterOps.blackAndWhite()},
+                {FilterOps.invertColors(), FilterOps.brightness(2.5)}
+        };
+        for (PointOp[] ops : chains) {
+            PointProgram.Builder builder = new PointProgram.Builder();
+            for (PointOp op : ops) {
+                op.appendTo(builder);
+            }
+            PointProgram program = builder.build();
+            if (!sameOutput(SCALAR.program(program), candidate.program(program), src)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mismo resultado en un rango desalineado y sin tocar fuera de él
+    private static boolean sameOutput(PixelKernel expected, PixelKernel actual, int[] src) {
+        int[] expectedDst = new int[src.length];
+        int[] actualDst = new int[src.length];
+        expected.apply(src, expectedDst, 3, src.length - 5);
+        actual.apply(src, actualDst, 3, src.length - 5);
+        return Arrays.equals(expectedDst, actualDst);
+    }
+}
@@ -0,0 +1,136 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+// Imágenes que no caben en memoria: se leen por franjas con ImageReader y se escriben en streaming
+public class LargeImageProcessor {
+
+    private static final long LARGE_IMAGE_THRESHOLD = 64L * 1_000_000; // Píxeles a partir de los cuales se usa este modo
+    private static final long BAND_BYTES = 32L * 1024 * 1024; // Memoria por franja (ARGB)
+
+    // Indica si la imagen supera el umbral, leyendo solo la cabecera
+    public static boolean isLarge(File file) {
+        try {
+            Dimension size = getSize(file);
+            return (long) size.width * size.height >= LARGE_IMAGE_THRESHOLD;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Dimensiones sin decodificar los píxeles
+    public static Dimension getSize(File file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = createReader(input, file);
+            try {
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Vista general submuestreada al leer: la memoria depende del tamaño de la vista, no de la imagen
+    public static Image loadOverview(File file, double maxWidth, double maxHeight) throws IOException {
+        try (Metrics.Sample sample = Metrics.start("decode:overview");
+             ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = createReader(input, file);
+            try {
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int step = (int) Math.max(1, Math.ceil(Math.max(width / maxWidth, height / maxHeight)));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage overview = reader.read(0, param);
+                sample.stop(overview.getWidth() * (double) overview.getHeight() / 1_000_000.0);
+                return toFxImage(overview);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Aplica la cadena franja a franja y escribe un PNG incremental en out
+    // Cada franja se lee con las filas de halo que piden los filtros de vecindad, que luego se descartan
+    public static void process(File source, FilterChain chain, OutputStream out, int compressionLevel) throws IOException {
+        CompiledChain compiled = chain.compile();
+        int halo = compiled.getRadius();
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            ImageReader reader = createReader(input, source);
+            try {
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int bandRows = (int) Math.max(1, Math.min(height, BAND_BYTES / (4L * width) - 2L * halo));
+                // Como en la ruta normal: los filtros conservan el canal alfa, así que solo depende del origen
+                boolean alpha = reader.getImageTypes(0).next().getColorModel().hasAlpha();
+                int[] pixels = new int[width * Math.min(height, bandRows + 2 * halo)];
+
+                try (PngStreamWriter writer = new PngStreamWriter(out, width, height, alpha, compressionLevel)) {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    for (int y = 0; y < height; y += bandRows) {
+                        int rows = Math.min(bandRows, height - y);
+                        double megapixels = width * (double) rows / 1_000_000.0;
+
+                        int top = Math.max(0, y - halo);
+                        int bandHeight = Math.min(height, y + rows + halo) - top;
+
+                        try (Metrics.Sample decode = Metrics.start("decode:band")) {
+                            param.setSourceRegion(new Rectangle(0, top, width, bandHeight));
+                            BufferedImage band = reader.read(0, param);
+                            band.getRGB(0, 0, width, bandHeight, pixels, 0, width);
+                            decode.stop(megapixels);
+                        }
+
+                        if (!chain.isEmpty()) {
+                            try (Metrics.Sample filter = Metrics.start("filter:band")) {
+                                compiled.run(pixels, pixels, width, bandHeight);
+                                filter.stop(megapixels);
+                            }
+                        }
+
+                        try (Metrics.Sample encode = Metrics.start("encode:band")) {
+                            writer.writeRows(pixels, (y - top) * width, rows);
+                            encode.stop(megapixels);
+                        }
+                    }
+                    writer.finish();
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader createReader(ImageInputStream input, File file) throws IOException {
+        if (input == null) {
+            throw new IOException("No se puede abrir " + file.getName());
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("Formato no soportado: " + file.getName());
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private static Image toFxImage(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        return PixelImages.wrap(pixels, width, height);
+    }
+}
@@ -1,5 +1,8 @@
 package ImageEditorApp;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.concurrent.Service;
@@ -16,10 +19,18 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.Priority;
+import javafx.util.Duration;
 
+import java.awt.Dimension;
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 public class Main extends Application {
 
@@ -27,17 +38,22 @@ public class Main extends Application {
     private TabPane tabPane;
     private ListView<String> history;
     private ProgressBar progressBar;
+    private Label progressLabel;
+    private Label saveQueueLabel;
     private File defaultSaveDirectory = new File(System.getProperty("user.home"), "ProcessedImages");
-    private static final int MAX_THREADS = 4; // Número máximo imágenes concurrentemente
-    private ExecutorService executorService; // Pool de hilos
+    private final Scheduler scheduler = Scheduler.getInstance(); // Hilos compartidos (uno por núcleo) con prioridades
+    private final TabMemory tabMemory = new TabMemory(512L * 1024 * 1024); // Techo para los píxeles de las pestañas cargadas
 
     private static final double FIXED_IMAGE_WIDTH = 200;
     private static final double FIXED_IMAGE_HEIGHT = 200;
+    private static final double PREVIEW_SCALE = 2; // Margen para pantallas HiDPI
+    private static final double THUMBNAIL_SIZE = 64; // Miniatura de las pestañas sin cargar
+    private static final int READ_AHEAD = 1; // Pestañas vecinas que se cargan por adelantado a cada lado
+    private static final long SHUTDOWN_SAVE_MILLIS = 60_000; // Espera máxima a los guardados al cerrar
 
     // Inicio aplicaión
     @Override
     public void start(Stage primaryStage) {
-        executorService = Executors.newFixedThreadPool(MAX_THREADS); // Inicializa pool de hilos
         SplashScreen.show(primaryStage, () -> initializeMainApplication(primaryStage));
     }
 
@@ -51,8 +67,13 @@ public class Main extends Application {
         progressBar.setVisible(false);
         progressBar.setMaxWidth(Double.MAX_VALUE);
         progressBar.setPrefHeight(20);
-        HBox progressBox = new HBox();
-        progressBox.getChildren().add(progressBar);
+        progressLabel = new Label();
+        saveQueueLabel = new Label();
+        FileManager.setSaveListener(pending -> Platform.runLater(() ->
+                saveQueueLabel.setText(pending > 0 ? "Guardando: " + pending + " pendientes" : "")));
+        HBox progressBox = new HBox(10);
+        progressBox.getChildren().addAll(progressBar, progressLabel, saveQueueLabel);
+        HBox.setHgrow(progressBar, Priority.ALWAYS);
         progressBox.setStyle("-fx-alignment: center;");
 
         history = new ListView<>();
@@ -60,12 +81,20 @@ public class Main extends Application {
         history.setMaxWidth(Double.MAX_VALUE);
 
         VBox.setVgrow(tabPane, Priority.ALWAYS);
-        VBox.setVgrow(history, Priority.ALWAYS);
+        VBox statsPanel = createStatsPanel();
+        HBox historyBox = new HBox(10, history, statsPanel);
+        HBox.setHgrow(history, Priority.ALWAYS);
+
+        VBox.setVgrow(historyBox, Priority.ALWAYS);
 
         Button openImagesButton = createOpenImagesButton(primaryStage);
         Button batchProcessButton = createBatchProcessButton(primaryStage);
 
-        root.getChildren().addAll(openImagesButton, batchProcessButton, tabPane, history, progressBox);
+        ChoiceBox<String> compressionChoice = createCompressionChoice();
+        CheckBox diskCacheCheck = createDiskCacheCheck();
+        ChoiceBox<String> tabMemoryChoice = createTabMemoryChoice();
+
+        root.getChildren().addAll(openImagesButton, batchProcessButton, compressionChoice, diskCacheCheck, tabMemoryChoice, tabPane, historyBox, progressBox);
 
         if (!defaultSaveDirectory.exists()) {
             defaultSaveDirectory.mkdir();
@@ -75,6 +104,81 @@ public class Main extends Application {
         primaryStage.setTitle("Editor de Imágenes");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        reportStartupTime();
+    }
+
+    // Tiempo desde el arranque de la JVM hasta mostrar la ventana principal
+    private void reportStartupTime() {
+        long startupMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        Metrics.record("startup", startupMillis * 1_000_000L, 0);
+        Metrics.StageStats warmup = Metrics.getStageStats().stream()
+                .filter(stats -> stats.name.equals("warmup"))
+                .findFirst().orElse(null);
+        history.getItems().add(String.format("Inicio en %d ms (calentamiento %.0f ms, kernels %s)",
+                startupMillis, warmup != null ? warmup.totalMillis : 0, KernelBackends.get().getName()));
+    }
+
+    // Panel de estadísticas en vivo (latencias por etapa, MP/s, trabajos en curso, heap)
+    private VBox createStatsPanel() {
+        Label statsLabel = new Label();
+        statsLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+        statsLabel.setMinWidth(420);
+
+        Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), event -> statsLabel.setText(Metrics.summary())));
+        refresh.setCycleCount(Animation.INDEFINITE);
+        refresh.play();
+
+        Button exportButton = new Button("Exportar métricas");
+        exportButton.setOnAction(event -> {
+            File metricsFile = new File(defaultSaveDirectory, "metrics-" + System.currentTimeMillis() + ".json");
+            try {
+                Files.writeString(metricsFile.toPath(), Metrics.toJson());
+                history.getItems().add("Métricas exportadas: " + metricsFile.getName());
+            } catch (Exception e) {
+                history.getItems().add("Error al exportar métricas: " + e.getMessage());
+            }
+        });
+
+        return new VBox(5, statsLabel, exportButton);
+    }
+
+    // Selector de compresión PNG: velocidad frente a tamaño
+    private ChoiceBox<String> createCompressionChoice() {
+        ChoiceBox<String> compressionChoice = new ChoiceBox<>();
+        compressionChoice.getItems().addAll("PNG rápido", "PNG normal", "PNG máxima compresión");
+        compressionChoice.getSelectionModel().select(1);
+        compressionChoice.getSelectionModel().selectedIndexProperty().addListener((obs, oldValue, newValue) -> {
+            int[] levels = {1, 4, 9};
+            FileManager.setCompressionLevel(levels[newValue.intValue()]);
+        });
+        return compressionChoice;
+    }
+
+    // Activa el nivel en disco de la caché de resultados (desactivado por defecto; en .cache dentro de la carpeta de guardado)
+    private CheckBox createDiskCacheCheck() {
+        CheckBox diskCacheCheck = new CheckBox("Caché de resultados en disco");
+        diskCacheCheck.setSelected(ResultCache.getInstance().isDiskEnabled());
+        diskCacheCheck.selectedProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue) {
+                ResultCache.getInstance().enableDiskUnder(defaultSaveDirectory);
+            } else {
+                ResultCache.getInstance().setDiskDirectory(null);
+            }
+        });
+        return diskCacheCheck;
+    }
+
+    // Techo de memoria para los píxeles de las pestañas: al superarlo se liberan las menos usadas
+    private ChoiceBox<String> createTabMemoryChoice() {
+        ChoiceBox<String> tabMemoryChoice = new ChoiceBox<>();
+        tabMemoryChoice.getItems().addAll("Pestañas: 128 MB", "Pestañas: 512 MB", "Pestañas: 2 GB");
+        tabMemoryChoice.getSelectionModel().select(1);
+        tabMemoryChoice.getSelectionModel().selectedIndexProperty().addListener((obs, oldValue, newValue) -> {
+            long[] budgets = {128L << 20, 512L << 20, 2048L << 20};
+            tabMemory.setBudgetBytes(budgets[newValue.intValue()]);
+        });
+        return tabMemoryChoice;
     }
 
     // Boton para procesar/abrir imagen
@@ -88,8 +192,15 @@ public class Main extends Application {
 
             if (files != null && !files.isEmpty()) {
                 for (File file : files) {
-                    Image image = new Image(file.toURI().toString());
-                    createImageProcessingView(file, image);
+                    LazyTab lazyTab = createLazyTab(file);
+                    scheduler.ioExecutor(Scheduler.Priority.BATCH).execute(() -> {
+                        try {
+                            lazyTab.loadInfo();
+                            Platform.runLater(lazyTab::showInfo);
+                        } catch (Exception e) {
+                            Platform.runLater(() -> history.getItems().add("Error procesando archivo: " + file.getName()));
+                        }
+                    });
                 }
             }
         });
@@ -112,48 +223,63 @@ public class Main extends Application {
                 if (imageFiles != null && imageFiles.length > 0) {
                     progressBar.setVisible(true);
                     progressBar.setProgress(0);
-    
-                    Service<Void> batchProcessingService = new Service<>() {
+                    List<File> files = Arrays.asList(imageFiles);
+                    Map<File, LazyTab> tabs = new HashMap<>();
+                    for (File file : files) {
+                        tabs.put(file, createLazyTab(file)); // Pestañas vacías al momento; las miniaturas llegan después
+                    }
+
+                    Service<BatchProcessor.Result> batchProcessingService = new Service<>() {
                         @Override
-                        protected Task<Void> createTask() {
+                        protected Task<BatchProcessor.Result> createTask() {
                             return new Task<>() {
                                 @Override
-                                protected Void call() throws Exception {
-                                    int totalFiles = imageFiles.length;
-                                    int[] processedFiles = {0};
-    
-                                    for (File file : imageFiles) {
-                                        executorService.submit(() -> {
-                                            try {
-                                                Thread.sleep(3000);
-                                                Image image = new Image(file.toURI().toString());
-                                                Platform.runLater(() -> createImageProcessingView(file, image));
-                                                synchronized (processedFiles) {
-                                                    processedFiles[0]++;
-                                                    updateProgress(processedFiles[0], totalFiles);
-                                                }
-                                            } catch (Exception e) {
-                                                Platform.runLater(() -> history.getItems().add("Error procesando archivo: " + file.getName()));
-                                            }
-                                        });
-                                    }
-                                    return null;
+                                protected BatchProcessor.Result call() throws Exception {
+                                    // Las miniaturas se leen en el ejecutor de E/S, así que no ocupan workers del planificador;
+                                    // como mucho una menos que workers (y al menos una), y los filtros interactivos
+                                    // adelantan a las franjas que lancen
+                                    BatchProcessor processor = new BatchProcessor(scheduler.ioExecutor(Scheduler.Priority.BATCH),
+                                            Math.max(1, scheduler.getParallelism() - 1));
+                                    return processor.process(files, file -> {
+                                        LazyTab lazyTab = tabs.get(file);
+                                        lazyTab.loadInfo();
+                                        Platform.runLater(lazyTab::showInfo); // Sin esperar al hilo de JavaFX
+                                    }, new BatchProcessor.ProgressListener() {
+                                        @Override
+                                        public void onProgress(BatchProcessor.Result progress) {
+                                            updateProgress(progress.getCompleted(), progress.getTotal());
+                                            updateMessage(String.format("%d/%d (%.1f imágenes/s)",
+                                                    progress.getCompleted(), progress.getTotal(), progress.getThroughput()));
+                                        }
+
+                                        @Override
+                                        public void onFailure(File file, Throwable error) {
+                                            Platform.runLater(() -> history.getItems().add("Error procesando archivo: " + file.getName()));
+                                        }
+                                    });
                                 }
                             };
                         }
                     };
-    
+
                     batchProcessingService.setOnSucceeded(e -> {
                         progressBar.setVisible(false);
-                        history.getItems().add("Procesamiento completado.");
+                        progressLabel.textProperty().unbind();
+                        progressLabel.setText("");
+                        BatchProcessor.Result result = batchProcessingService.getValue();
+                        history.getItems().add(String.format("Procesamiento completado: %d imágenes, %d errores en %.1f s (%.1f imágenes/s).",
+                                result.getProcessed(), result.getFailed(), result.getSeconds(), result.getThroughput()));
                     });
-    
+
                     batchProcessingService.setOnFailed(e -> {
                         progressBar.setVisible(false);
+                        progressLabel.textProperty().unbind();
+                        progressLabel.setText("");
                         history.getItems().add("Error durante el procesamiento.");
                     });
-    
+
                     progressBar.progressProperty().bind(batchProcessingService.progressProperty());
+                    progressLabel.textProperty().bind(batchProcessingService.messageProperty());
                     batchProcessingService.start();
                 } else {
                     history.getItems().add("No se encontraron imágenes en la carpeta seleccionada.");
@@ -166,9 +292,152 @@ public class Main extends Application {
         return batchProcessButton;
     }
 
-    // Vista para procesar imagen cargada
-    private void createImageProcessingView(File file, Image image) {
-        final Image originalImage = image;
+    // Vista previa reducida al tamaño de las miniaturas
+    private static Image loadPreview(File file) throws Exception {
+        return EditSession.loadPreview(file, FIXED_IMAGE_WIDTH * PREVIEW_SCALE, FIXED_IMAGE_HEIGHT * PREVIEW_SCALE);
+    }
+
+    // Pestaña ligera: solo datos del archivo y miniatura hasta que se selecciona
+    private LazyTab createLazyTab(File file) {
+        LazyTab lazyTab = new LazyTab(file);
+        Tab tab = lazyTab.tab;
+        tab.setUserData(lazyTab);
+        tab.setClosable(true);
+        tab.setContent(lazyTab.placeholder);
+        tab.setOnSelectionChanged(event -> {
+            if (tab.isSelected()) {
+                onTabSelected(lazyTab);
+            }
+        });
+        tab.setOnClosed(event -> {
+            lazyTab.closed = true;
+            tabMemory.remove(lazyTab);
+            release(lazyTab);
+        });
+        tabPane.getTabs().add(tab);
+        return lazyTab;
+    }
+
+    // Carga la pestaña seleccionada con prioridad interactiva y sus vecinas por adelantado
+    private void onTabSelected(LazyTab lazyTab) {
+        tabMemory.setPinned(lazyTab);
+        load(lazyTab, Scheduler.Priority.INTERACTIVE);
+        List<Tab> tabs = tabPane.getTabs();
+        int index = tabs.indexOf(lazyTab.tab);
+        for (int offset = 1; offset <= READ_AHEAD; offset++) {
+            for (int neighbor : new int[]{index + offset, index - offset}) {
+                if (neighbor >= 0 && neighbor < tabs.size()) {
+                    load((LazyTab) tabs.get(neighbor).getUserData(), Scheduler.Priority.PREFETCH);
+                }
+            }
+        }
+    }
+
+    // Decodifica la vista previa si no está en memoria (la vista de edición se crea al seleccionar la pestaña)
+    private void load(LazyTab lazyTab, Scheduler.Priority priority) {
+        if (lazyTab.preview != null) {
+            tabMemory.touch(lazyTab);
+            showIfSelected(lazyTab);
+            return;
+        }
+        if (lazyTab.loading != null && lazyTab.loading.compareTo(priority) <= 0) {
+            return; // Ya se está cargando con la misma prioridad o más
+        }
+        lazyTab.loading = priority;
+        scheduler.execute(priority, null, () -> {
+            try {
+                Image preview = loadPreview(lazyTab.file);
+                Platform.runLater(() -> loaded(lazyTab, preview));
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    lazyTab.loading = null;
+                    history.getItems().add("Error procesando archivo: " + lazyTab.file.getName());
+                });
+            }
+        });
+    }
+
+    private void loaded(LazyTab lazyTab, Image preview) {
+        lazyTab.loading = null;
+        if (lazyTab.closed || lazyTab.preview != null) {
+            return; // Cerrada mientras cargaba, o ya cargada por una petición más prioritaria
+        }
+        lazyTab.preview = preview;
+        // Vista previa, píxeles base del historial y resultado mostrado
+        long bytes = 3L * 4 * (long) preview.getWidth() * (long) preview.getHeight();
+        tabMemory.touch(lazyTab, bytes, () -> release(lazyTab));
+        showIfSelected(lazyTab);
+    }
+
+    private void showIfSelected(LazyTab lazyTab) {
+        if (lazyTab.tab.isSelected() && lazyTab.session == null && lazyTab.preview != null && !lazyTab.opening) {
+            openSession(lazyTab);
+        }
+    }
+
+    // Crea la sesión (lee los píxeles y la cabecera del archivo) y rehace los filtros fuera del hilo de JavaFX;
+    // mientras tanto la pestaña muestra la vista previa sin filtros
+    private void openSession(LazyTab lazyTab) {
+        File file = lazyTab.file;
+        Image preview = lazyTab.preview;
+        FilterChain chain = lazyTab.chain;
+        lazyTab.opening = true;
+        lazyTab.tab.setContent(createProxyView(preview));
+        scheduler.execute(Scheduler.Priority.INTERACTIVE, null, () -> {
+            try {
+                EditSession session = new EditSession(file, preview);
+                Image processed = session.replay(chain); // Filtros que tenía antes de liberarse
+                Platform.runLater(() -> opened(lazyTab, preview, session, processed));
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    lazyTab.opening = false;
+                    lazyTab.tab.setContent(lazyTab.placeholder);
+                    history.getItems().add("Error procesando archivo: " + file.getName());
+                });
+            }
+        });
+    }
+
+    private void opened(LazyTab lazyTab, Image preview, EditSession session, Image processed) {
+        lazyTab.opening = false;
+        if (lazyTab.closed || lazyTab.preview != preview) {
+            session.close(); // Cerrada o liberada mientras se preparaba
+            if (!lazyTab.closed) {
+                showIfSelected(lazyTab); // Puede que ya haya otra vista previa esperando
+            }
+            return;
+        }
+        lazyTab.session = session;
+        lazyTab.tab.setContent(createImageProcessingView(lazyTab, processed));
+    }
+
+    // Vista previa provisional mientras se prepara la sesión de edición
+    private static VBox createProxyView(Image preview) {
+        ImageView proxyView = new ImageView(preview);
+        proxyView.setPreserveRatio(true);
+        proxyView.setFitWidth(FIXED_IMAGE_WIDTH);
+        proxyView.setFitHeight(FIXED_IMAGE_HEIGHT);
+        VBox proxy = new VBox(10, proxyView, new Label("Preparando..."));
+        proxy.setStyle("-fx-alignment: center;");
+        return proxy;
+    }
+
+    // Libera los píxeles de una pestaña cerrada o poco usada; conserva la miniatura y los filtros aplicados
+    private void release(LazyTab lazyTab) {
+        if (lazyTab.session != null) {
+            lazyTab.chain = lazyTab.session.getChain();
+            lazyTab.session.close();
+            lazyTab.session = null;
+        }
+        lazyTab.preview = null;
+        lazyTab.tab.setContent(lazyTab.placeholder);
+    }
+
+    // Vista para procesar imagen cargada (los filtros se aplican sobre la vista previa)
+    private GridPane createImageProcessingView(LazyTab lazyTab, Image processed) {
+        File file = lazyTab.file;
+        Image image = lazyTab.preview;
+        EditSession session = lazyTab.session;
         HBox imagesBox = new HBox(10);
         imagesBox.setStyle("-fx-alignment: center;");
 
@@ -181,7 +450,7 @@ public class Main extends Application {
         processedImageView.setPreserveRatio(true);
         processedImageView.setFitWidth(FIXED_IMAGE_WIDTH);
         processedImageView.setFitHeight(FIXED_IMAGE_HEIGHT);
-        processedImageView.setImage(image);
+        processedImageView.setImage(processed);
 
         imagesBox.getChildren().addAll(originalImageView, processedImageView);
 
@@ -190,16 +459,27 @@ public class Main extends Application {
         filterProgressBar.setMaxWidth(100);
         filterProgressBar.setPrefHeight(15);
 
-        Button blackAndWhiteButton = createFilterButton("Blanco y Negro", image, processedImageView, file.getName(), () -> ApplyFilters.applyBlackAndWhite(image), filterProgressBar);
-        Button invertColorsButton = createFilterButton("Invertir Colores", image, processedImageView, file.getName(), () -> ApplyFilters.applyInvertColors(image), filterProgressBar);
-        Button increaseBrightnessButton = createFilterButton("Aumentar Brillo", image, processedImageView, file.getName(), () -> ApplyFilters.applyBrightness(image, 1.2), filterProgressBar);
+        Button blackAndWhiteButton = createFilterButton("Blanco y Negro", session, processedImageView, file.getName(), () -> session.apply(FilterOps.blackAndWhite()), filterProgressBar);
+        Button invertColorsButton = createFilterButton("Invertir Colores", session, processedImageView, file.getName(), () -> session.apply(FilterOps.invertColors()), filterProgressBar);
+        Button increaseBrightnessButton = createFilterButton("Aumentar Brillo", session, processedImageView, file.getName(), () -> session.apply(FilterOps.brightness(1.2)), filterProgressBar);
+        Button blurButton = createFilterButton("Desenfocar", session, processedImageView, file.getName(), () -> session.apply(FilterOps.gaussianBlur(2.0)), filterProgressBar);
+        Button boxBlurButton = createFilterButton("Desenfoque Caja", session, processedImageView, file.getName(), () -> session.apply(FilterOps.boxBlur(5)), filterProgressBar);
+        Button sharpenButton = createFilterButton("Enfocar", session, processedImageView, file.getName(), () -> session.apply(FilterOps.sharpen(1.0)), filterProgressBar);
+        Button edgesButton = createFilterButton("Detectar Bordes", session, processedImageView, file.getName(), () -> session.apply(FilterOps.edges()), filterProgressBar);
 
-        Button saveButton = createSaveButton(file, processedImageView);
+        Button saveButton = createSaveButton(session);
 
         Button restoreButton = new Button("Restaurar");
-        restoreButton.setOnAction(event -> {
-            processedImageView.setImage(originalImage); // Restaurar la imagen original
-        });
+        restoreButton.setOnAction(event -> runHistoryRequest(session, processedImageView, filterProgressBar,
+                session::restore, null)); // Restaurar la imagen original
+
+        Button undoButton = new Button("Deshacer");
+        undoButton.setOnAction(event -> runHistoryRequest(session, processedImageView, filterProgressBar,
+                () -> session.canUndo() ? session.undo() : null, "[" + file.getName() + "] Deshacer"));
+
+        Button redoButton = new Button("Rehacer");
+        redoButton.setOnAction(event -> runHistoryRequest(session, processedImageView, filterProgressBar,
+                () -> session.canRedo() ? session.redo() : null, "[" + file.getName() + "] Rehacer"));
 
         GridPane imageWithControlsGrid = new GridPane();
         imageWithControlsGrid.setHgap(20); // Espaciado horizontal entre celdas
@@ -215,6 +495,12 @@ public class Main extends Application {
         imageWithControlsGrid.add(invertColorsButton, 1, 2);
         imageWithControlsGrid.add(increaseBrightnessButton, 1, 3);
         imageWithControlsGrid.add(saveButton, 1, 4);
+        imageWithControlsGrid.add(undoButton, 2, 0); // Historial en la tercera columna
+        imageWithControlsGrid.add(redoButton, 2, 1);
+        imageWithControlsGrid.add(blurButton, 3, 0); // Filtros de vecindad en la cuarta columna
+        imageWithControlsGrid.add(boxBlurButton, 3, 1);
+        imageWithControlsGrid.add(sharpenButton, 3, 2);
+        imageWithControlsGrid.add(edgesButton, 3, 3);
 
         GridPane.setMargin(restoreButton, new Insets(0, 20, 0, 0)); // Margen dcho.
         GridPane.setMargin(blackAndWhiteButton, new Insets(0, 20, 0, 0));
@@ -228,30 +514,54 @@ public class Main extends Application {
         GridPane.setVgrow(imagesBox, Priority.ALWAYS);
         GridPane.setHgrow(filterProgressBar, Priority.ALWAYS);
 
-        Tab tab = new Tab(file.getName());
-        tab.setClosable(true);
-        tab.setContent(imageWithControlsGrid);
-        tabPane.getTabs().add(tab);
+        return imageWithControlsGrid;
+    }
 
+    // Deshacer, rehacer y restaurar: como los filtros, pasan por el planificador y cancelan la petición anterior,
+    // así el hilo de la interfaz no espera al historial y un filtro atrasado no pisa la imagen (work devuelve null si no hay nada que hacer)
+    private void runHistoryRequest(EditSession session, ImageView processedImageView, ProgressBar filterProgressBar, FilterTask work, String message) {
+        CancellationToken token = session.newRequest();
+        filterProgressBar.progressProperty().unbind();
+        filterProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        filterProgressBar.setVisible(true);
+        scheduler.execute(Scheduler.Priority.INTERACTIVE, token, () -> {
+            try {
+                token.throwIfCancelled();
+                Image image = work.apply();
+                Platform.runLater(() -> {
+                    if (session.isLatest(token)) {
+                        if (image != null) {
+                            processedImageView.setImage(image);
+                        }
+                        filterProgressBar.setVisible(false);
+                    }
+                    if (image != null && message != null) {
+                        history.getItems().add(message);
+                    }
+                });
+            } catch (CancellationException e) {
+                // Sustituida por una petición más nueva: esa actualizará la imagen y la barra
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    history.getItems().add("Error en el historial de [" + session.getFile().getName() + "]");
+                    filterProgressBar.setVisible(!session.isLatest(token));
+                });
+            }
+        });
     }
 
-    // Boton para aplicar filtro a imagen procesada
-    private Button createFilterButton(String filterName, Image originalImage, ImageView processedImageView, String fileName, FilterTask task, ProgressBar filterProgressBar) {
+    // Boton para aplicar filtro a imagen procesada (prioridad interactiva; una petición nueva de la pestaña cancela la anterior)
+    private Button createFilterButton(String filterName, EditSession session, ImageView processedImageView, String fileName, FilterTask task, ProgressBar filterProgressBar) {
         Button filterButton = new Button(filterName);
 
         filterButton.setOnAction(event -> {
             filterButton.setDisable(true);
             filterProgressBar.setVisible(true);
+            CancellationToken token = session.newRequest();
 
             Task<Image> filterTask = new Task<>() {
                 @Override
                 protected Image call() throws Exception {
-                    updateProgress(0, 100);
-                    Thread.sleep(300);
-                    for (int i = 0; i <= 100; i++) {
-                        updateProgress(i, 100);
-                        Thread.sleep(20);
-                    }
                     return task.apply();
                 }
 
@@ -260,52 +570,59 @@ public class Main extends Application {
                     super.succeeded();
                     Image filteredImage = getValue();
                     Platform.runLater(() -> {
-                        processedImageView.setImage(filteredImage);
-                        history.getItems().add("[" + fileName + "] Filtro aplicado: " + filterName);
-                        showPopup("Éxito", "El filtro se aplicó correctamente.");
+                        if (session.isLatest(token)) { // Si no, una petición posterior ya puso (o pondrá) su imagen
+                            processedImageView.setImage(filteredImage);
+                            history.getItems().add("[" + fileName + "] Filtro aplicado: " + filterName);
+                            showPopup("Éxito", "El filtro se aplicó correctamente.");
+                        }
                         filterButton.setDisable(false);
-                        filterProgressBar.setVisible(false);
+                        filterProgressBar.setVisible(!session.isLatest(token));
                     });
                 }
 
                 @Override
                 protected void failed() {
                     super.failed();
+                    if (getException() instanceof CancellationException) {
+                        // Sustituido por una petición más nueva: esa actualizará la imagen y la barra
+                        history.getItems().add("[" + fileName + "] Filtro descartado: " + filterName);
+                        filterButton.setDisable(false);
+                        return;
+                    }
                     Platform.runLater(() -> {
                         history.getItems().add("Error al aplicar filtro: " + filterName + " en [" + fileName + "]");
                         showPopup("Error", "Ocurrió un error al aplicar el filtro.");
                         filterButton.setDisable(false);
-                        filterProgressBar.setVisible(false);
+                        filterProgressBar.setVisible(!session.isLatest(token));
                     });
                 }
             };
 
-            filterProgressBar.progressProperty().bind(filterTask.progressProperty());
-            new Thread(filterTask).start();
+            filterProgressBar.progressProperty().unbind();
+            filterProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            scheduler.execute(Scheduler.Priority.INTERACTIVE, token, filterTask);
         });
 
         return filterButton;
     }
 
-    // Boton guardado imagen procesada
-    private Button createSaveButton(File originalFile, ImageView processedImageView) {
+    // Boton guardado imagen procesada: repite la cadena sobre la resolución completa en segundo plano
+    private Button createSaveButton(EditSession session) {
         Button saveButton = new Button("Guardar");
     
         saveButton.setOnAction(event -> {
-            Image imageToSave = processedImageView.getImage();
-            if (imageToSave != null) {
-                try {
-                    if (imageToSave.getWidth() > 0 && imageToSave.getHeight() > 0) {
-                        FileManager.saveImage(originalFile, imageToSave);
-                        history.getItems().add("Imagen guardada correctamente.");
+            try {
+                CompletableFuture<File> save = FileManager.saveImage(session.getFile(), session::writeFullResolution);
+                save.whenComplete((savedFile, error) -> Platform.runLater(() -> {
+                    if (error == null) {
+                        history.getItems().add("Imagen guardada correctamente: " + savedFile.getName());
                     } else {
-                        history.getItems().add("Error: La imagen procesada tiene un tamaño inválido.");
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        history.getItems().add("Error al guardar la imagen: " + cause.getMessage());
                     }
-                } catch (Exception e) {
-                    history.getItems().add("Error al guardar la imagen: " + e.getMessage());
-                }
-            } else {
-                history.getItems().add("Error: No hay imagen procesada para guardar.");
+                }));
+            } catch (Exception e) {
+                history.getItems().add("Error al guardar la imagen: " + e.getMessage());
             }
         });
     
@@ -321,10 +638,12 @@ public class Main extends Application {
         alert.showAndWait();
     }
 
-    // Detiene servicios
+    // Al cerrar la ventana: no acepta más guardados y espera a que terminen los que están en marcha
     @Override
-    public void stop() {
-        executorService.shutdown();
+    public void stop() throws Exception {
+        if (!FileManager.shutdown(SHUTDOWN_SAVE_MILLIS)) {
+            System.err.println("Cierre con guardados aún en marcha: " + FileManager.getPendingSaves());
+        }
     }
 
     // Metodo inicio aplicacion javafx
@@ -332,6 +651,43 @@ public class Main extends Application {
         launch(args);
     }
 
+    // Pestaña virtual: datos del archivo y miniatura siempre; vista previa y sesión solo mientras está cargada
+    private static class LazyTab {
+        final File file;
+        final Tab tab;
+        final ImageView thumbnailView = new ImageView();
+        final Label infoLabel = new Label("Cargando...");
+        final VBox placeholder = new VBox(10, thumbnailView, infoLabel);
+        private volatile Image thumbnail;
+        private volatile String info;
+
+        // Solo desde el hilo de JavaFX
+        Image preview;
+        EditSession session;
+        FilterChain chain = FilterChain.empty(); // Filtros aplicados, para rehacerlos al volver a cargar
+        Scheduler.Priority loading; // Prioridad de la carga en curso, o null
+        boolean opening; // Preparando la sesión en segundo plano
+        boolean closed;
+
+        LazyTab(File file) {
+            this.file = file;
+            this.tab = new Tab(file.getName());
+            placeholder.setStyle("-fx-alignment: center;");
+        }
+
+        // Lee las dimensiones y una miniatura (en segundo plano)
+        void loadInfo() throws Exception {
+            Dimension size = LargeImageProcessor.getSize(file);
+            thumbnail = EditSession.loadPreview(file, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+            info = String.format("%s  %d x %d  %.1f MB", file.getName(), size.width, size.height, file.length() / 1e6);
+        }
+
+        void showInfo() {
+            thumbnailView.setImage(thumbnail);
+            infoLabel.setText(info);
+        }
+    }
+
     // Interfaz aplica filtro
     @FunctionalInterface
     private interface FilterTask {
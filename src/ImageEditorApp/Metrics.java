@@ -0,0 +1,210 @@
+package ImageEditorApp;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Tiempos y contadores por etapa, con un evento JFR por medición, y trabajos (imágenes) en curso
+public class Metrics {
+
+    private static final int RESERVOIR_SIZE = 1024; // Últimas muestras para los percentiles
+
+    private static final Map<String, Stage> stages = new ConcurrentSkipListMap<>();
+    private static final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private static final AtomicInteger jobsInFlight = new AtomicInteger(); // Imágenes empezadas y no terminadas
+
+    // Empieza a medir una etapa; hay que llamar a stop() al terminar
+    public static Sample start(String stage) {
+        return new Sample(stage);
+    }
+
+    // Registra una duración medida fuera (p. ej. espera en cola)
+    public static void record(String stage, long nanos, double megapixels) {
+        stages.computeIfAbsent(stage, Stage::new).add(nanos, megapixels);
+    }
+
+    public static void increment(String counter) {
+        counters.computeIfAbsent(counter, name -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public static int getCount(String counter) {
+        AtomicInteger value = counters.get(counter);
+        return value != null ? value.get() : 0;
+    }
+
+    // Una imagen entra en proceso (p. ej. Batch al reservarla); cada jobStarted() necesita su jobFinished()
+    public static void jobStarted() {
+        jobsInFlight.incrementAndGet();
+    }
+
+    // La imagen terminó, bien o con error
+    public static void jobFinished() {
+        jobsInFlight.decrementAndGet();
+    }
+
+    public static int getInFlight() {
+        return jobsInFlight.get();
+    }
+
+    public static long getHeapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Estadísticas actuales de todas las etapas
+    public static List<StageStats> getStageStats() {
+        List<StageStats> stats = new ArrayList<>();
+        for (Stage stage : stages.values()) {
+            stats.add(stage.stats());
+        }
+        return stats;
+    }
+
+    // Texto para el panel de estadísticas
+    public static String summary() {
+        StringBuilder text = new StringBuilder();
+        for (StageStats stats : getStageStats()) {
+            text.append(String.format("%-26s n=%-5d p50=%7.1f ms  p99=%7.1f ms  %7.1f MP/s%n",
+                    stats.name, stats.count, stats.p50Millis, stats.p99Millis, stats.megapixelsPerSecond));
+        }
+        for (Map.Entry<String, AtomicInteger> counter : new ConcurrentSkipListMap<>(counters).entrySet()) {
+            text.append(String.format("%-26s %d%n", counter.getKey(), counter.getValue().get()));
+        }
+        text.append(String.format("En curso: %d   Heap: %d MB", getInFlight(), getHeapUsed() / (1024 * 1024)));
+        return text.toString();
+    }
+
+    // Instantánea en JSON para los paneles de rendimiento
+    public static String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"timestamp\": ").append(System.currentTimeMillis());
+        json.append(",\n  \"inFlight\": ").append(getInFlight());
+        json.append(",\n  \"heapUsedBytes\": ").append(getHeapUsed());
+        json.append(",\n  \"stages\": [");
+        List<StageStats> all = getStageStats();
+        for (int i = 0; i < all.size(); i++) {
+            StageStats stats = all.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append(String.format(Locale.ROOT,
+                    "    {\"name\": \"%s\", \"count\": %d, \"p50Ms\": %.3f, \"p99Ms\": %.3f, \"totalMs\": %.3f, \"megapixels\": %.3f, \"megapixelsPerSecond\": %.3f}",
+                    escape(stats.name), stats.count, stats.p50Millis, stats.p99Millis, stats.totalMillis, stats.megapixels, stats.megapixelsPerSecond));
+        }
+        json.append(all.isEmpty() ? "],\n" : "\n  ],\n");
+        json.append("  \"counters\": {");
+        boolean first = true;
+        for (Map.Entry<String, AtomicInteger> counter : new ConcurrentSkipListMap<>(counters).entrySet()) {
+            json.append(first ? "" : ", ").append('"').append(escape(counter.getKey())).append("\": ").append(counter.getValue().get());
+            first = false;
+        }
+        json.append("}\n}\n");
+        return json.toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    // Medición en curso; al cerrarla sin stop() (por una excepción) se descarta y cuenta como fallo
+    public static class Sample implements AutoCloseable {
+        private final String stage;
+        private final long startNanos;
+        private final StageEvent event = new StageEvent();
+        private boolean stopped;
+
+        private Sample(String stage) {
+            this.stage = stage;
+            event.begin();
+            startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            stop(0);
+        }
+
+        // Termina la medición indicando los megapíxeles procesados
+        public void stop(double megapixels) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            long nanos = System.nanoTime() - startNanos;
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage;
+                event.megapixels = megapixels;
+                event.jobsInFlight = getInFlight();
+                event.commit();
+            }
+            record(stage, nanos, megapixels);
+        }
+
+        @Override
+        public void close() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            increment(stage + ":failed");
+        }
+    }
+
+    // Valores calculados de una etapa
+    public static class StageStats {
+        public final String name;
+        public final long count;
+        public final double p50Millis;
+        public final double p99Millis;
+        public final double totalMillis;
+        public final double megapixels;
+        public final double megapixelsPerSecond;
+
+        StageStats(String name, long count, double p50Millis, double p99Millis, double totalMillis, double megapixels) {
+            this.name = name;
+            this.count = count;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.totalMillis = totalMillis;
+            this.megapixels = megapixels;
+            this.megapixelsPerSecond = totalMillis > 0 ? megapixels / (totalMillis / 1000.0) : 0;
+        }
+    }
+
+    // Acumulado de una etapa con un búfer circular de duraciones
+    private static class Stage {
+        private final String name;
+        private final long[] samples = new long[RESERVOIR_SIZE];
+        private long count;
+        private long totalNanos;
+        private double megapixels;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(long nanos, double megapixels) {
+            samples[(int) (count % RESERVOIR_SIZE)] = nanos;
+            count++;
+            totalNanos += nanos;
+            this.megapixels += megapixels;
+        }
+
+        synchronized StageStats stats() {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, RESERVOIR_SIZE));
+            Arrays.sort(sorted);
+            return new StageStats(name, count, percentile(sorted, 0.50), percentile(sorted, 0.99), totalNanos / 1e6, megapixels);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ImageEditorApp;
+
+// Operación que lee los píxeles vecinos (desenfoque, enfoque, bordes); no se puede fusionar ni hacer en el sitio
+public interface NeighborhoodKernel {
+
+    // Filas vecinas que necesita por cada lado
+    int getRadius();
+
+    // Escribe las filas [fromRow, toRow) de dst leyendo src entero; fuera de la imagen se repite el borde
+    void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow);
+}
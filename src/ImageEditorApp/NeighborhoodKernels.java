@@ -0,0 +1,292 @@
+package ImageEditorApp;
+
+// Filtros de vecindad sobre píxeles ARGB empaquetados
+// Se procesan por bloques: pasada horizontal del bloque y su halo a un búfer pequeño, luego pasada vertical
+public class NeighborhoodKernels {
+
+    private static final int TILE_ROWS = 32; // Bloques de 32 x 256 píxeles: los búferes intermedios caben en caché
+    private static final int TILE_COLUMNS = 256;
+    private static final int MAX_BOX_RADIUS = 2047;
+    private static final int SHIFT = 16; // Pesos gaussianos en punto fijo
+    private static final int ONE = 1 << SHIFT;
+    private static final int HALF = ONE >> 1;
+    private static final long LANE_MASK = 0xFFFFFFFFL;
+    private static final long LANE_BYTES = 0xFF000000FFL; // Un byte por carril
+    private static final long HALF_LANES = (long) HALF << 32 | HALF;
+
+    // Desenfoque gaussiano separable: dos pasadas 1-D de 2r+1 pesos en lugar de una de (2r+1)^2
+    public static NeighborhoodKernel gaussianBlur(double sigma) {
+        int[] weights = gaussianWeights(sigma);
+        int radius = weights.length / 2;
+        if (radius == 0) {
+            return copy();
+        }
+        return new Separable(radius) {
+            @Override
+            void horizontal(long[] lineAg, long[] lineRb, long[] outAg, long[] outRb, int offset, int columns) {
+                for (int x = 0; x < columns; x++) {
+                    long ag = HALF_LANES;
+                    long rb = HALF_LANES;
+                    for (int k = 0; k < weights.length; k++) {
+                        ag += weights[k] * lineAg[x + k];
+                        rb += weights[k] * lineRb[x + k];
+                    }
+                    outAg[offset + x] = ag >>> SHIFT & LANE_BYTES;
+                    outRb[offset + x] = rb >>> SHIFT & LANE_BYTES;
+                }
+            }
+
+            @Override
+            void vertical(long[] tileAg, long[] tileRb, int rows, int columns, long[] outAg, long[] outRb) {
+                for (int row = 0; row < rows; row++) {
+                    for (int x = 0; x < columns; x++) {
+                        long ag = HALF_LANES;
+                        long rb = HALF_LANES;
+                        for (int k = 0, i = row * columns + x; k < weights.length; k++, i += columns) {
+                            ag += weights[k] * tileAg[i];
+                            rb += weights[k] * tileRb[i];
+                        }
+                        outAg[row * columns + x] = ag >>> SHIFT & LANE_BYTES;
+                        outRb[row * columns + x] = rb >>> SHIFT & LANE_BYTES;
+                    }
+                }
+            }
+        };
+    }
+
+    // Desenfoque de caja con sumas deslizantes: coste constante por píxel sea cual sea el radio
+    public static NeighborhoodKernel boxBlur(int radius) {
+        if (radius < 0 || radius > MAX_BOX_RADIUS) {
+            throw new IllegalArgumentException("Radio fuera de rango: " + radius);
+        }
+        if (radius == 0) {
+            return copy();
+        }
+        int size = 2 * radius + 1;
+        long half = (long) (size / 2) << 32 | size / 2;
+        long reciprocal = ((1L << 32) + size - 1) / size; // Divide por size con una multiplicación (exacto si size < 4096)
+        return new Separable(radius) {
+            @Override
+            void horizontal(long[] lineAg, long[] lineRb, long[] outAg, long[] outRb, int offset, int columns) {
+                long ag = half;
+                long rb = half;
+                for (int k = 0; k < size; k++) {
+                    ag += lineAg[k];
+                    rb += lineRb[k];
+                }
+                for (int x = 0; x < columns; x++) {
+                    outAg[offset + x] = divide(ag, reciprocal);
+                    outRb[offset + x] = divide(rb, reciprocal);
+                    if (x + 1 < columns) {
+                        ag += lineAg[x + size] - lineAg[x]; // La ventana siempre contiene lo que sale: no hay acarreo entre carriles
+                        rb += lineRb[x + size] - lineRb[x];
+                    }
+                }
+            }
+
+            @Override
+            void vertical(long[] tileAg, long[] tileRb, int rows, int columns, long[] outAg, long[] outRb) {
+                for (int x = 0; x < columns; x++) {
+                    long ag = half;
+                    long rb = half;
+                    for (int k = 0, i = x; k < size; k++, i += columns) {
+                        ag += tileAg[i];
+                        rb += tileRb[i];
+                    }
+                    for (int row = 0, i = x; row < rows; row++, i += columns) {
+                        outAg[i] = divide(ag, reciprocal);
+                        outRb[i] = divide(rb, reciprocal);
+                        if (row + 1 < rows) {
+                            ag += tileAg[i + size * columns] - tileAg[i];
+                            rb += tileRb[i + size * columns] - tileRb[i];
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    // Enfoque por máscara de desenfoque: original + amount * (original - gaussiano), conserva el alfa
+    public static NeighborhoodKernel sharpen(double amount, double sigma) {
+        NeighborhoodKernel blur = gaussianBlur(sigma);
+        int gain = (int) Math.round(amount * 256);
+        return new NeighborhoodKernel() {
+            @Override
+            public int getRadius() {
+                return blur.getRadius();
+            }
+
+            @Override
+            public void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow) {
+                blur.apply(src, dst, width, height, fromRow, toRow);
+                for (int i = fromRow * width, end = toRow * width; i < end; i++) {
+                    int original = src[i];
+                    int blurred = dst[i];
+                    dst[i] = original & 0xFF000000
+                            | sharpenChannel(original >> 16 & 0xFF, blurred >> 16 & 0xFF, gain) << 16
+                            | sharpenChannel(original >> 8 & 0xFF, blurred >> 8 & 0xFF, gain) << 8
+                            | sharpenChannel(original & 0xFF, blurred & 0xFF, gain);
+                }
+            }
+        };
+    }
+
+    // Detección de bordes de Sobel sobre la luma (la misma que el blanco y negro); conserva el alfa
+    public static NeighborhoodKernel edges() {
+        return new NeighborhoodKernel() {
+            @Override
+            public int getRadius() {
+                return 1;
+            }
+
+            @Override
+            public void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow) {
+                int[] up = new int[width + 2];
+                int[] middle = new int[width + 2];
+                int[] down = new int[width + 2];
+                lumaRow(src, clamp(fromRow - 1, height) * width, width, up);
+                lumaRow(src, fromRow * width, width, middle);
+                for (int y = fromRow; y < toRow; y++) {
+                    lumaRow(src, clamp(y + 1, height) * width, width, down);
+                    for (int x = 0, i = y * width; x < width; x++, i++) {
+                        int gx = up[x + 2] + 2 * middle[x + 2] + down[x + 2] - up[x] - 2 * middle[x] - down[x];
+                        int gy = down[x] + 2 * down[x + 1] + down[x + 2] - up[x] - 2 * up[x + 1] - up[x + 2];
+                        int magnitude = Math.min(255, (int) Math.sqrt(gx * gx + gy * gy));
+                        dst[i] = src[i] & 0xFF000000 | magnitude * 0x010101;
+                    }
+                    int[] recycled = up; // Las tres filas avanzan una posición
+                    up = middle;
+                    middle = down;
+                    down = recycled;
+                }
+            }
+        };
+    }
+
+    // Radio 0: copia las filas sin cambios
+    private static NeighborhoodKernel copy() {
+        return new NeighborhoodKernel() {
+            @Override
+            public int getRadius() {
+                return 0;
+            }
+
+            @Override
+            public void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow) {
+                System.arraycopy(src, fromRow * width, dst, fromRow * width, (toRow - fromRow) * width);
+            }
+        };
+    }
+
+    // Pesos gaussianos de radio ceil(3 * sigma) en punto fijo, que suman exactamente ONE
+    static int[] gaussianWeights(double sigma) {
+        if (sigma < 0) {
+            throw new IllegalArgumentException("Sigma negativa: " + sigma);
+        }
+        int radius = (int) Math.ceil(3 * sigma);
+        int[] weights = new int[2 * radius + 1];
+        if (radius == 0) {
+            weights[0] = ONE;
+            return weights;
+        }
+        double[] gauss = new double[weights.length];
+        double total = 0;
+        for (int k = -radius; k <= radius; k++) {
+            gauss[k + radius] = Math.exp(-k * k / (2 * sigma * sigma));
+            total += gauss[k + radius];
+        }
+        int sum = 0;
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] = (int) Math.round(gauss[k] / total * ONE);
+            sum += weights[k];
+        }
+        weights[radius] += ONE - sum; // El redondeo sobrante va al centro
+        return weights;
+    }
+
+    private static int sharpenChannel(int original, int blurred, int gain) {
+        int value = original + ((original - blurred) * gain + 128 >> 8);
+        return value < 0 ? 0 : Math.min(255, value);
+    }
+
+    // Luma de una fila con una columna repetida a cada lado
+    private static void lumaRow(int[] src, int offset, int width, int[] luma) {
+        for (int x = 0; x < width; x++) {
+            int pixel = src[offset + x];
+            luma[x + 1] = ((pixel >> 16 & 0xFF) + (pixel >> 8 & 0xFF) + (pixel & 0xFF) + 1) / 3;
+        }
+        luma[0] = luma[1];
+        luma[width + 1] = luma[width];
+    }
+
+    private static int clamp(int row, int height) {
+        return row < 0 ? 0 : Math.min(height - 1, row);
+    }
+
+    // Divide cada carril entre size usando su recíproco
+    private static long divide(long lanes, long reciprocal) {
+        return (lanes >>> 32) * reciprocal >>> 32 << 32 | (lanes & LANE_MASK) * reciprocal >>> 32;
+    }
+
+    // Filtro separable recorrido por bloques de filas y columnas
+    // Cada píxel se desempaqueta en dos long con un canal por carril de 32 bits (alfa|verde y rojo|azul):
+    // una multiplicación procesa dos canales sin desbordar de un carril al otro
+    private abstract static class Separable implements NeighborhoodKernel {
+        private final int radius;
+
+        Separable(int radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public int getRadius() {
+            return radius;
+        }
+
+        // Filtra una fila (line lleva radius columnas extra a cada lado) y escribe columns valores en out[offset..]
+        abstract void horizontal(long[] lineAg, long[] lineRb, long[] outAg, long[] outRb, int offset, int columns);
+
+        // Filtra en vertical el bloque (rows + 2 * radius filas) y escribe rows filas en out
+        abstract void vertical(long[] tileAg, long[] tileRb, int rows, int columns, long[] outAg, long[] outRb);
+
+        @Override
+        public void apply(int[] src, int[] dst, int width, int height, int fromRow, int toRow) {
+            int tileRows = Math.min(toRow - fromRow, Math.max(TILE_ROWS, 4 * radius)); // Limita el coste del halo
+            int tileColumns = Math.min(width, Math.max(TILE_COLUMNS, 4 * radius));
+            long[] lineAg = new long[tileColumns + 2 * radius];
+            long[] lineRb = new long[tileColumns + 2 * radius];
+            long[] tileAg = new long[(tileRows + 2 * radius) * tileColumns];
+            long[] tileRb = new long[(tileRows + 2 * radius) * tileColumns];
+            long[] outAg = new long[tileRows * tileColumns];
+            long[] outRb = new long[tileRows * tileColumns];
+
+            for (int y0 = fromRow; y0 < toRow; y0 += tileRows) {
+                int rows = Math.min(tileRows, toRow - y0);
+                for (int x0 = 0; x0 < width; x0 += tileColumns) {
+                    int columns = Math.min(tileColumns, width - x0);
+
+                    // Pasada horizontal de las filas del bloque y su halo
+                    for (int y = y0 - radius; y < y0 + rows + radius; y++) {
+                        int offset = clamp(y, height) * width;
+                        for (int i = 0, x = x0 - radius; i < columns + 2 * radius; i++, x++) {
+                            int pixel = src[offset + (x < 0 ? 0 : Math.min(width - 1, x))];
+                            lineAg[i] = (long) (pixel >>> 24) << 32 | pixel >> 8 & 0xFF;
+                            lineRb[i] = (long) (pixel >> 16 & 0xFF) << 32 | pixel & 0xFF;
+                        }
+                        horizontal(lineAg, lineRb, tileAg, tileRb, (y - y0 + radius) * columns, columns);
+                    }
+
+                    // Pasada vertical y empaquetado
+                    vertical(tileAg, tileRb, rows, columns, outAg, outRb);
+                    for (int row = 0; row < rows; row++) {
+                        for (int x = 0, i = row * columns, o = (y0 + row) * width + x0; x < columns; x++, i++, o++) {
+                            long ag = outAg[i];
+                            long rb = outRb[i];
+                            dst[o] = (int) (ag >>> 8) | (int) (ag << 8) | (int) (rb >>> 16) | (int) rb;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
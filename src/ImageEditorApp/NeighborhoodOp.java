@@ -0,0 +1,8 @@
+package ImageEditorApp;
+
+// Operación de vecindad: lee los píxeles de alrededor y es una etapa propia de la cadena
+public interface NeighborhoodOp extends FilterOp {
+
+    // Filtro con los radios multiplicados por scale (vista previa reducida)
+    NeighborhoodKernel neighborhood(double scale);
+}
@@ -0,0 +1,209 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PixelEngine {
+
+    private static final WritablePixelFormat<IntBuffer> FORMAT = PixelFormat.getIntArgbInstance();
+
+    // Configuración de la ejecución en paralelo (los hilos son los del planificador compartido)
+    private static final Scheduler scheduler = Scheduler.getInstance();
+    // Valores iniciales ajustables al arrancar con -Dimageeditor.stripRows=N y -Dimageeditor.parallelThreshold=N
+    private static volatile int stripRows = Math.max(1, Integer.getInteger("imageeditor.stripRows", 64)); // Filas por franja
+    private static volatile int parallelThreshold = Math.max(0, Integer.getInteger("imageeditor.parallelThreshold", 512 * 512)); // Píxeles mínimos para paralelizar
+
+    // Aplica un kernel a la imagen completa en una sola pasada, en el sitio; el resultado se muestra sin copiar el array
+    public static Image apply(Image inputImage, PixelKernel kernel) {
+        int width = (int) inputImage.getWidth();
+        int height = (int) inputImage.getHeight();
+
+        int[] pixels = readPixels(inputImage);
+        run(kernel, pixels, pixels, width, height);
+        return PixelImages.wrap(pixels, width, height);
+    }
+
+    // Ejecuta el kernel por franjas de filas, en paralelo si la imagen es grande
+    public static void run(PixelKernel kernel, int[] src, int[] dst, int width, int height) {
+        runStrips((fromRow, toRow) -> kernel.apply(src, dst, fromRow * width, toRow * width),
+                width, height, stripRows);
+    }
+
+    // Ejecuta un filtro de vecindad por franjas de filas; src y dst deben ser arrays distintos (salvo radio 0)
+    public static void run(NeighborhoodKernel kernel, int[] src, int[] dst, int width, int height) {
+        // Cada franja recalcula el halo de sus vecinas: se agrandan para que no domine
+        runStrips((fromRow, toRow) -> kernel.apply(src, dst, width, height, fromRow, toRow),
+                width, height, Math.max(stripRows, 4 * kernel.getRadius()));
+    }
+
+    // Reparte las franjas entre el hilo actual y ayudantes del planificador con la prioridad del trabajo actual
+    // Entre franja y franja se comprueba la cancelación; los ayudantes ceden el hilo a trabajo más prioritario
+    // y el hilo que lanzó el trabajo lo ejecuta antes de seguir con sus franjas
+    private static void runStrips(RowRange work, int width, int height, int rows) {
+        if (width <= 0 || height <= 0) {
+            return; // Sin franjas: el latch de StripJob no llegaría nunca a cero
+        }
+        CancellationToken token = Scheduler.currentToken();
+        if ((long) width * height < parallelThreshold || scheduler.getParallelism() <= 1) {
+            if (token == null) {
+                work.apply(0, height);
+                return;
+            }
+            for (int row = 0; row < height; row += rows) {
+                token.throwIfCancelled();
+                work.apply(row, Math.min(height, row + rows));
+            }
+            return;
+        }
+
+        StripJob job = new StripJob(scheduler, work, height, Math.max(1, rows), Scheduler.currentPriority(), token);
+        int helpers = Math.min(scheduler.getParallelism() - 1, job.strips - 1);
+        for (int i = 0; i < helpers; i++) {
+            scheduler.execute(job.priority, job);
+        }
+        job.work(false);
+        job.await();
+    }
+
+    // Lee todos los píxeles en un array ARGB nuevo
+    public static int[] readPixels(Image image) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] shared = PixelImages.getPixels(image);
+        if (shared != null) {
+            return shared.clone(); // Sin pasar por el PixelReader ni convertir de premultiplicado
+        }
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, FORMAT, pixels, 0, width);
+        return pixels;
+    }
+
+    // Crea una imagen a partir de un array ARGB
+    public static WritableImage writePixels(int[] pixels, int width, int height) {
+        WritableImage outputImage = new WritableImage(width, height);
+        outputImage.getPixelWriter().setPixels(0, 0, width, height, FORMAT, pixels, 0, width);
+        return outputImage;
+    }
+
+    public static int getParallelism() {
+        return scheduler.getParallelism();
+    }
+
+    // Filas por franja: más pequeñas reparten mejor, más grandes reducen la coordinación entre hilos
+    public static void setStripRows(int rows) {
+        stripRows = Math.max(1, rows);
+    }
+
+    public static int getStripRows() {
+        return stripRows;
+    }
+
+    // Por debajo de este número de píxeles el filtro se ejecuta entero en el hilo actual
+    public static void setParallelThreshold(int pixels) {
+        parallelThreshold = Math.max(0, pixels);
+    }
+
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    // Trabajo sobre un rango de filas
+    @FunctionalInterface
+    private interface RowRange {
+        void apply(int fromRow, int toRow);
+    }
+
+    // Franjas de una ejecución: cada hilo toma la siguiente libre hasta que no quedan
+    private static class StripJob implements Runnable {
+        private final Scheduler scheduler;
+        private final RowRange work;
+        private final int height;
+        private final int rows;
+        private final int strips;
+        private final Scheduler.Priority priority;
+        private final CancellationToken token;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger done = new AtomicInteger();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        StripJob(Scheduler scheduler, RowRange work, int height, int rows, Scheduler.Priority priority, CancellationToken token) {
+            this.scheduler = scheduler;
+            this.work = work;
+            this.height = height;
+            this.rows = rows;
+            this.strips = (height + rows - 1) / rows;
+            this.priority = priority;
+            this.token = token;
+        }
+
+        // Ayudante en un hilo del planificador
+        @Override
+        public void run() {
+            Scheduler.runWith(priority, token, () -> work(true));
+        }
+
+        void work(boolean helper) {
+            while (next.get() < strips) {
+                if (helper && scheduler.hasWaitingAbove(priority)) {
+                    // Cede el hilo y vuelve a la cola; mientras tanto el hilo que lanzó el trabajo sigue con las franjas
+                    Metrics.increment("scheduler:yield");
+                    scheduler.execute(priority, this);
+                    return;
+                }
+                if (!helper && scheduler.hasWaitingAbove(priority) && scheduler.runWaitingAbove(priority)) {
+                    // El que lanzó el trabajo no puede irse (espera el resultado): atiende antes lo más prioritario
+                    Metrics.increment("scheduler:yield");
+                    continue;
+                }
+                int strip = next.getAndIncrement();
+                if (strip >= strips) {
+                    return;
+                }
+                try {
+                    if (error == null && (token == null || !token.isCancelled())) {
+                        int fromRow = strip * rows;
+                        work.apply(fromRow, Math.min(height, fromRow + rows));
+                    }
+                } catch (Throwable e) {
+                    error = e;
+                } finally {
+                    if (done.incrementAndGet() == strips) {
+                        finished.countDown();
+                    }
+                }
+            }
+        }
+
+        // Espera a las franjas que aún hacen los ayudantes y propaga su error o la cancelación
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Los ayudantes siguen escribiendo en los arrays: hay que esperarlos
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            if (token != null) {
+                token.throwIfCancelled();
+            }
+        }
+    }
+}
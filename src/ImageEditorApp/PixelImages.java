@@ -0,0 +1,91 @@
+package ImageEditorApp;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Imágenes JavaFX sobre un PixelBuffer<IntBuffer> (IntArgbPre) que envuelve el array de los filtros sin copiarlo
+// El mismo array se entrega al codificador PNG como DataBufferInt; los arrays no se deben modificar después
+public class PixelImages {
+
+    // Imagen -> su array (el valor no apunta a la imagen, así que no la retiene)
+    private static final Map<Image, Backing> backings = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Envuelve píxeles ARGB: sin copia si son opacos (premultiplicado = sin premultiplicar), si no con una copia premultiplicada
+    public static WritableImage wrap(int[] argb, int width, int height) {
+        boolean opaque = isOpaque(argb, width * height);
+        int[] pixels = opaque ? argb : premultiply(argb, width * height);
+        PixelBuffer<IntBuffer> buffer = new PixelBuffer<>(width, height, IntBuffer.wrap(pixels, 0, width * height),
+                PixelFormat.getIntArgbPreInstance());
+        WritableImage image = new WritableImage(buffer);
+        backings.put(image, new Backing(opaque ? argb : null, width, height));
+        return image;
+    }
+
+    // Array ARGB compartido por una imagen creada con wrap, o null (otra imagen, o con transparencia)
+    public static int[] getPixels(Image image) {
+        Backing backing = backings.get(image);
+        return backing != null ? backing.argb : null;
+    }
+
+    // BufferedImage ARGB sobre el mismo array, o null si la imagen no se creó con wrap
+    public static BufferedImage toBufferedImage(Image image) {
+        Backing backing = backings.get(image);
+        if (backing == null || backing.argb == null) {
+            return null;
+        }
+        int[] masks = {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(backing.argb, backing.width * backing.height),
+                backing.width, backing.height, backing.width, masks, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    private static boolean isOpaque(int[] argb, int length) {
+        int alpha = 0xFF000000;
+        for (int i = 0; i < length; i++) {
+            alpha &= argb[i];
+        }
+        return alpha == 0xFF000000;
+    }
+
+    private static int[] premultiply(int[] argb, int length) {
+        int[] pre = new int[length];
+        for (int i = 0; i < length; i++) {
+            int p = argb[i];
+            int a = p >>> 24;
+            if (a == 255) {
+                pre[i] = p;
+            } else {
+                int r = ((p >> 16 & 0xFF) * a + 127) / 255;
+                int g = ((p >> 8 & 0xFF) * a + 127) / 255;
+                int b = ((p & 0xFF) * a + 127) / 255;
+                pre[i] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+        return pre;
+    }
+
+    // Array de una imagen envuelta
+    private static class Backing {
+        final int[] argb; // Compartido (null si se copió para premultiplicar)
+        final int width;
+        final int height;
+
+        Backing(int[] argb, int width, int height) {
+            this.argb = argb;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ImageEditorApp;
+
+// Operación sobre píxeles ARGB empaquetados
+@FunctionalInterface
+public interface PixelKernel {
+
+    // Procesa los píxeles [from, to) de src y los escribe en dst
+    void apply(int[] src, int[] dst, int from, int to);
+}
@@ -0,0 +1,34 @@
+package ImageEditorApp;
+
+public class PixelKernels {
+
+    // Blanco y negro: media entera redondeada de los tres canales
+    public static PixelKernel blackAndWhite() {
+        return KernelBackends.get().blackAndWhite();
+    }
+
+    // Inversión de color
+    public static PixelKernel invertColors() {
+        return KernelBackends.get().invertColors();
+    }
+
+    // Brillo mediante tabla precalculada
+    public static PixelKernel brightness(double factor) {
+        int[] lut = brightnessLut(factor);
+        return KernelBackends.get().program(new PointProgram.Builder().lut(lut, lut, lut).build());
+    }
+
+    // Tabla de brillo con la misma precisión (float) y redondeo que Color y PixelWriter.setColor
+    static int[] brightnessLut(double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Factor de brillo negativo: " + factor);
+        }
+        int[] lut = new int[256];
+        for (int i = 0; i < 256; i++) {
+            double channel = (float) (i / 255.0);
+            float scaled = (float) Math.min(channel * factor, 1.0);
+            lut[i] = (int) Math.round(scaled * 255.0);
+        }
+        return lut;
+    }
+}
@@ -0,0 +1,123 @@
+package ImageEditorApp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Escritor PNG incremental: recibe la imagen por franjas de filas sin tenerla entera en memoria
+public class PngStreamWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final boolean alpha;
+    private final int bytesPerPixel;
+    private final Deflater deflater;
+    private final DeflaterOutputStream compressed;
+    private final byte[] currentRow;
+    private int rowsWritten;
+
+    public PngStreamWriter(OutputStream out, int width, int height, boolean alpha, int compressionLevel) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.width = width;
+        this.height = height;
+        this.alpha = alpha;
+        this.bytesPerPixel = alpha ? 4 : 3;
+        this.currentRow = new byte[1 + width * bytesPerPixel];
+        this.deflater = new Deflater(compressionLevel);
+        this.compressed = new DeflaterOutputStream(new IdatOutputStream(), deflater, CHUNK_SIZE);
+
+        this.out.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8); // Bits por canal
+        headerData.writeByte(alpha ? 6 : 2); // RGBA o RGB
+        headerData.writeByte(0); // Deflate
+        headerData.writeByte(0); // Filtros adaptativos estándar
+        headerData.writeByte(0); // Sin entrelazado
+        writeChunk("IHDR", header.toByteArray(), header.size());
+    }
+
+    // Añade filas ARGB empaquetadas (offset y número de filas dentro del array)
+    public void writeRows(int[] argb, int offset, int rows) throws IOException {
+        if (rowsWritten + rows > height) {
+            throw new IOException("Se han escrito más filas que el alto de la imagen");
+        }
+        for (int row = 0; row < rows; row++) {
+            int base = offset + row * width;
+            currentRow[0] = 1; // Filtro Sub: cada byte menos el del píxel anterior
+            int previous = 0;
+            for (int x = 0, i = 1; x < width; x++) {
+                int pixel = argb[base + x];
+                currentRow[i++] = (byte) ((pixel >> 16) - (previous >> 16));
+                currentRow[i++] = (byte) ((pixel >> 8) - (previous >> 8));
+                currentRow[i++] = (byte) (pixel - previous);
+                if (alpha) {
+                    currentRow[i++] = (byte) ((pixel >>> 24) - (previous >>> 24));
+                }
+                previous = pixel;
+            }
+            compressed.write(currentRow);
+        }
+        rowsWritten += rows;
+    }
+
+    // Cierra la compresión y escribe IEND; no cierra el flujo de salida
+    public void finish() throws IOException {
+        if (rowsWritten != height) {
+            throw new IOException("Faltan filas: " + rowsWritten + " de " + height);
+        }
+        compressed.finish();
+        writeChunk("IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // Cada escritura del deflater se emite como un bloque IDAT
+    private class IdatOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            if (offset == 0) {
+                writeChunk("IDAT", data, length);
+            } else {
+                byte[] copy = new byte[length];
+                System.arraycopy(data, offset, copy, 0, length);
+                writeChunk("IDAT", copy, length);
+            }
+        }
+    }
+}
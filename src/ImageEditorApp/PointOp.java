@@ -0,0 +1,8 @@
+package ImageEditorApp;
+
+// Operación puntual: cada píxel depende solo de sí mismo, así que se fusiona con las vecinas en un programa
+public interface PointOp extends FilterOp {
+
+    // Añade la operación al programa fusionado
+    void appendTo(PointProgram.Builder program);
+}
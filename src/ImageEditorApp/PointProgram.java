@@ -0,0 +1,140 @@
+package ImageEditorApp;
+
+// Cadena de operaciones puntuales fusionada en tablas por canal y un paso de luma opcional
+public class PointProgram implements PixelKernel {
+
+    private static final int OPAQUE = 0xFF000000;
+
+    private final int[] preRed;
+    private final int[] preGreen;
+    private final int[] preBlue;
+    private final boolean gray;
+    private final int[] postRed;
+    private final int[] postGreen;
+    private final int[] postBlue;
+
+    private PointProgram(Builder builder) {
+        preRed = builder.preRed;
+        preGreen = builder.preGreen;
+        preBlue = builder.preBlue;
+        gray = builder.gray;
+        postRed = builder.postRed;
+        postGreen = builder.postGreen;
+        postBlue = builder.postBlue;
+    }
+
+    // Acceso para otros backends (p. ej. el vectorial)
+    int[] getPreRed() {
+        return preRed;
+    }
+
+    int[] getPreGreen() {
+        return preGreen;
+    }
+
+    int[] getPreBlue() {
+        return preBlue;
+    }
+
+    boolean hasGray() {
+        return gray;
+    }
+
+    int[] getPostRed() {
+        return postRed;
+    }
+
+    int[] getPostGreen() {
+        return postGreen;
+    }
+
+    int[] getPostBlue() {
+        return postBlue;
+    }
+
+    @Override
+    public void apply(int[] src, int[] dst, int from, int to) {
+        if (!gray) {
+            for (int i = from; i < to; i++) {
+                int argb = src[i];
+                dst[i] = OPAQUE
+                        | (preRed[(argb >> 16) & 0xFF] << 16)
+                        | (preGreen[(argb >> 8) & 0xFF] << 8)
+                        | preBlue[argb & 0xFF];
+            }
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            int argb = src[i];
+            int sum = preRed[(argb >> 16) & 0xFF] + preGreen[(argb >> 8) & 0xFF] + preBlue[argb & 0xFF];
+            int luma = (sum + 1) / 3;
+            dst[i] = OPAQUE | (postRed[luma] << 16) | (postGreen[luma] << 8) | postBlue[luma];
+        }
+    }
+
+    // Construye el programa componiendo las tablas de cada operación
+    public static class Builder {
+        private int[] preRed = identity();
+        private int[] preGreen = preRed;
+        private int[] preBlue = preRed;
+        private boolean gray;
+        private int[] postRed;
+        private int[] postGreen;
+        private int[] postBlue;
+
+        // Tabla por canal aplicada tras lo acumulado
+        public Builder lut(int[] red, int[] green, int[] blue) {
+            if (!gray) {
+                preRed = compose(red, preRed);
+                preGreen = compose(green, preGreen);
+                preBlue = compose(blue, preBlue);
+            } else {
+                postRed = compose(red, postRed);
+                postGreen = compose(green, postGreen);
+                postBlue = compose(blue, postBlue);
+            }
+            return this;
+        }
+
+        // Media de los tres canales
+        public Builder gray() {
+            if (!gray) {
+                gray = true;
+                postRed = identity();
+                postGreen = postRed;
+                postBlue = postRed;
+                return this;
+            }
+            // Tras una luma previa los canales solo dependen de ella: la nueva luma es otra tabla
+            int[] luma = new int[256];
+            for (int i = 0; i < 256; i++) {
+                luma[i] = (postRed[i] + postGreen[i] + postBlue[i] + 1) / 3;
+            }
+            postRed = luma;
+            postGreen = luma;
+            postBlue = luma;
+            return this;
+        }
+
+        public PointProgram build() {
+            return new PointProgram(this);
+        }
+
+        private static int[] identity() {
+            int[] lut = new int[256];
+            for (int i = 0; i < 256; i++) {
+                lut[i] = i;
+            }
+            return lut;
+        }
+
+        // outer(inner(i))
+        private static int[] compose(int[] outer, int[] inner) {
+            int[] lut = new int[256];
+            for (int i = 0; i < 256; i++) {
+                lut[i] = outer[inner[i]];
+            }
+            return lut;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ImageEditorApp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Caché de resultados por contenido: hash de la imagen de origen + cadena de filtros + variante
+// Nivel en memoria (píxeles, LRU con presupuesto de bytes) y nivel opcional en disco (PNG ya codificados):
+// el de disco está desactivado hasta que se elige su carpeta, normalmente dentro de la carpeta de salida
+public class ResultCache {
+
+    private static final ResultCache INSTANCE = new ResultCache(64L * 1024 * 1024, 1024L * 1024 * 1024);
+    private static final String DISK_DIRECTORY_NAME = ".cache";
+
+    // Hash de cada archivo mientras no cambien su tamaño ni su fecha (LRU acotado: la vigilancia puede ver archivos sin fin)
+    private static final int MAX_FILE_HASHES = 4096;
+    private static final LinkedHashMap<String, FileHash> fileHashes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<String, int[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final long memoryBudgetBytes;
+    private long memoryUsedBytes;
+
+    private volatile File diskDirectory; // null: sin nivel en disco
+    private final long diskBudgetBytes;
+    private long diskUsedBytes = -1; // Se calcula al primer uso
+
+    public ResultCache(long memoryBudgetBytes, long diskBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.diskBudgetBytes = diskBudgetBytes;
+    }
+
+    public static ResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Clave de un resultado; variant distingue lo que cambia los píxeles además de la cadena (decodificador, escala...)
+    public static String key(String sourceHash, FilterChain chain, String variant) {
+        return sourceHash + "|" + chain.getKey() + "|" + variant;
+    }
+
+    // SHA-256 de los bytes del archivo; solo se vuelve a leer si cambian su tamaño o su fecha
+    public static String fileHash(File file) throws IOException {
+        long size = file.length();
+        long modified = file.lastModified();
+        FileHash known;
+        synchronized (fileHashes) {
+            known = fileHashes.get(file.getAbsolutePath());
+        }
+        if (known != null && known.size == size && known.modified == modified) {
+            return known.hash;
+        }
+
+        MessageDigest digest = sha256();
+        try (Metrics.Sample sample = Metrics.start("cache:hash"); InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[256 * 1024];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            sample.stop();
+        }
+        String hash = hex(digest.digest());
+        synchronized (fileHashes) {
+            fileHashes.put(file.getAbsolutePath(), new FileHash(size, modified, hash));
+            Iterator<FileHash> it = fileHashes.values().iterator();
+            while (fileHashes.size() > MAX_FILE_HASHES && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        return hash;
+    }
+
+    // SHA-256 de los píxeles y las dimensiones
+    public static String pixelHash(int[] pixels, int width, int height) {
+        MessageDigest digest = sha256();
+        ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+        bytes.putInt(width).putInt(height);
+        int done = 0;
+        do {
+            int count = Math.min(pixels.length - done, bytes.remaining() / 4);
+            bytes.asIntBuffer().put(pixels, done, count);
+            bytes.position(bytes.position() + count * 4);
+            done += count;
+            bytes.flip();
+            digest.update(bytes);
+            bytes.clear();
+        } while (done < pixels.length);
+        return hex(digest.digest());
+    }
+
+    // Píxeles guardados para la clave (no se deben modificar), o null
+    public synchronized int[] get(String key) {
+        int[] pixels = memory.get(key);
+        Metrics.increment(pixels != null ? "cache:memory-hit" : "cache:memory-miss");
+        return pixels;
+    }
+
+    // Guarda los píxeles (que ya no se deben modificar) y expulsa los menos usados si se supera el presupuesto
+    public synchronized void put(String key, int[] pixels) {
+        long bytes = pixels.length * 4L;
+        if (bytes > memoryBudgetBytes) {
+            return;
+        }
+        int[] previous = memory.put(key, pixels);
+        memoryUsedBytes += bytes - (previous != null ? previous.length * 4L : 0);
+        evictMemory();
+    }
+
+    // PNG ya calculado para la clave, o null si no está o el nivel en disco está desactivado
+    public File getFile(String key) {
+        File directory = diskDirectory;
+        if (directory == null) {
+            return null;
+        }
+        File file = diskFile(directory, key);
+        if (!file.isFile()) {
+            Metrics.increment("cache:disk-miss");
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis()); // Orden LRU en disco
+        Metrics.increment("cache:disk-hit");
+        return file;
+    }
+
+    // Copia un PNG recién escrito al nivel en disco
+    public void putFile(String key, File png) throws IOException {
+        File directory = diskDirectory;
+        if (directory == null) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("No se pudo crear la caché: " + directory);
+        }
+        File file = diskFile(directory, key);
+        FileManager.copyAtomically(png, file);
+        addDiskBytes(directory, file.length());
+    }
+
+    // Activa el nivel en disco en directory, o lo desactiva con null
+    public synchronized void setDiskDirectory(File directory) {
+        diskDirectory = directory;
+        diskUsedBytes = -1;
+    }
+
+    // Activa el nivel en disco en la carpeta .cache dentro de la carpeta de salida
+    public void enableDiskUnder(File outputDirectory) {
+        setDiskDirectory(new File(outputDirectory, DISK_DIRECTORY_NAME));
+    }
+
+    public boolean isDiskEnabled() {
+        return diskDirectory != null;
+    }
+
+    // Aciertos y fallos desde el arranque
+    public static int getHits() {
+        return Metrics.getCount("cache:memory-hit") + Metrics.getCount("cache:disk-hit");
+    }
+
+    public static int getMisses() {
+        return Metrics.getCount("cache:memory-miss") + Metrics.getCount("cache:disk-miss");
+    }
+
+    private void evictMemory() {
+        Iterator<int[]> it = memory.values().iterator();
+        while (memoryUsedBytes > memoryBudgetBytes && it.hasNext()) {
+            memoryUsedBytes -= it.next().length * 4L;
+            it.remove();
+        }
+    }
+
+    // Lleva la cuenta de bytes en disco y borra los más antiguos si se supera el presupuesto
+    private synchronized void addDiskBytes(File directory, long bytes) {
+        if (directory != diskDirectory) {
+            return; // La caché cambió de carpeta mientras se copiaba
+        }
+        if (diskUsedBytes >= 0) {
+            diskUsedBytes += bytes;
+            if (diskUsedBytes <= diskBudgetBytes) {
+                return;
+            }
+        }
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".png"));
+        if (files == null) {
+            return;
+        }
+        diskUsedBytes = Arrays.stream(files).mapToLong(File::length).sum(); // Recuento real (incluye lo añadido)
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (diskUsedBytes <= diskBudgetBytes * 9 / 10) { // Deja margen para no limpiar en cada escritura
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                diskUsedBytes -= length;
+            }
+        }
+    }
+
+    private static File diskFile(File directory, String key) {
+        return new File(directory, hex(sha256().digest(key.getBytes(StandardCharsets.UTF_8))) + ".png");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder text = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            text.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return text.toString();
+    }
+
+    // Hash conocido de un archivo
+    private static class FileHash {
+        final long size;
+        final long modified;
+        final String hash;
+
+        FileHash(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+}
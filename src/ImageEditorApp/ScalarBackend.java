@@ -0,0 +1,40 @@
+package ImageEditorApp;
+
+// Kernels escalares: siempre disponibles y referencia para comprobar el resto
+public class ScalarBackend implements KernelBackend {
+
+    private static final int OPAQUE = 0xFF000000;
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+
+    // Blanco y negro: media entera redondeada de los tres canales
+    @Override
+    public PixelKernel blackAndWhite() {
+        return (src, dst, from, to) -> {
+            for (int i = from; i < to; i++) {
+                int argb = src[i];
+                int sum = ((argb >> 16) & 0xFF) + ((argb >> 8) & 0xFF) + (argb & 0xFF);
+                int gray = (sum + 1) / 3;
+                dst[i] = OPAQUE | (gray << 16) | (gray << 8) | gray;
+            }
+        };
+    }
+
+    // Inversión de color
+    @Override
+    public PixelKernel invertColors() {
+        return (src, dst, from, to) -> {
+            for (int i = from; i < to; i++) {
+                dst[i] = OPAQUE | (~src[i] & 0x00FFFFFF);
+            }
+        };
+    }
+
+    @Override
+    public PixelKernel program(PointProgram program) {
+        return program;
+    }
+}
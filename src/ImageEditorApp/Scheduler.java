@@ -0,0 +1,197 @@
+package ImageEditorApp;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Planificador compartido por la interfaz, los lotes y PixelEngine: un hilo por núcleo y una cola con prioridades
+// Las lecturas y escrituras van a un ejecutor de E/S aparte, con su prioridad para lo que calculen
+// Los trabajos heredan su prioridad y su token de cancelación a las franjas que lanzan en PixelEngine
+public class Scheduler {
+
+    // Clases de prioridad, de mayor a menor
+    public enum Priority {
+        INTERACTIVE, // Filtros pedidos desde una pestaña: alguien espera el resultado
+        BATCH,       // Lotes y guardados
+        PREFETCH     // Calentamiento y lecturas anticipadas
+    }
+
+    private static final Scheduler INSTANCE = new Scheduler(Runtime.getRuntime().availableProcessors());
+
+    // Prioridad y token del trabajo que se ejecuta en cada hilo
+    private static final ThreadLocal<Context> current = new ThreadLocal<>();
+
+    private final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong(); // Orden de llegada dentro de la misma prioridad
+    private volatile int parallelism;
+    private int workers; // Hilos vivos (si sobran, salen al terminar su trabajo actual)
+    private final ThreadFactory threads = ThreadPools.daemonFactory("scheduler");
+    private final ExecutorService io = ThreadPools.newIoExecutor("io"); // Lecturas y escrituras, fuera de los workers
+
+    public Scheduler(int parallelism) {
+        setParallelism(parallelism);
+    }
+
+    public static Scheduler getInstance() {
+        return INSTANCE;
+    }
+
+    // Encola un trabajo con su prioridad; token puede ser null (si se cancela antes de empezar, no se ejecuta)
+    public <T> Future<T> submit(Priority priority, CancellationToken token, Callable<T> work) {
+        FutureTask<T> task = new FutureTask<>(() -> callWith(priority, token, () -> {
+            if (token != null) {
+                token.throwIfCancelled();
+            }
+            return work.call();
+        }));
+        execute(priority, task);
+        return task;
+    }
+
+    // Igual para un Runnable que informa él mismo de su resultado (p. ej. un Task de JavaFX)
+    public void execute(Priority priority, CancellationToken token, Runnable work) {
+        execute(priority, () -> runWith(priority, token, work));
+    }
+
+    // Ejecutor de una clase de prioridad, para APIs que piden un Executor (CompletableFuture, BatchProcessor...)
+    public Executor executor(Priority priority) {
+        return command -> execute(priority, null, command);
+    }
+
+    // Ejecutor para lecturas y escrituras: esperar al disco no ocupa ningún worker, y lo que se calcule por el
+    // camino en PixelEngine se encola con la prioridad indicada
+    public Executor ioExecutor(Priority priority) {
+        return command -> io.execute(() -> runWith(priority, null, command));
+    }
+
+    // Ejecuta work en el hilo actual con la prioridad y el token indicados
+    public static <T> T callWith(Priority priority, CancellationToken token, Callable<T> work) throws Exception {
+        Context previous = current.get();
+        current.set(new Context(priority, token));
+        try {
+            return work.call();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    public static void runWith(Priority priority, CancellationToken token, Runnable work) {
+        Context previous = current.get();
+        current.set(new Context(priority, token));
+        try {
+            work.run();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    // Prioridad del trabajo actual; fuera del planificador se considera interactivo (alguien espera en ese hilo)
+    public static Priority currentPriority() {
+        Context context = current.get();
+        return context != null ? context.priority : Priority.INTERACTIVE;
+    }
+
+    // Token del trabajo actual, o null
+    public static CancellationToken currentToken() {
+        Context context = current.get();
+        return context != null ? context.token : null;
+    }
+
+    // Lanza CancellationException si el trabajo actual se ha cancelado
+    public static void checkCancelled() {
+        CancellationToken token = currentToken();
+        if (token != null) {
+            token.throwIfCancelled();
+        }
+    }
+
+    // Hay trabajo esperando con más prioridad que la indicada (las franjas ceden el hilo)
+    boolean hasWaitingAbove(Priority priority) {
+        Entry head = queue.peek();
+        return head != null && head.priority.compareTo(priority) < 0;
+    }
+
+    // Ejecuta en el hilo actual el siguiente trabajo si es más prioritario que el indicado; false si no había ninguno
+    boolean runWaitingAbove(Priority priority) {
+        Entry head = queue.poll();
+        if (head == null) {
+            return false;
+        }
+        if (head.priority.compareTo(priority) >= 0) {
+            queue.put(head); // Conserva su número de llegada: vuelve a su sitio
+            return false;
+        }
+        head.work.run();
+        return true;
+    }
+
+    void execute(Priority priority, Runnable work) {
+        queue.put(new Entry(priority, sequence.getAndIncrement(), work));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // Cambia el número de hilos; por defecto uno por núcleo
+    public synchronized void setParallelism(int count) {
+        parallelism = Math.max(1, count);
+        while (workers < parallelism) {
+            workers++;
+            threads.newThread(this::work).start();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            synchronized (this) {
+                if (workers > parallelism) {
+                    workers--;
+                    return;
+                }
+            }
+            try {
+                queue.take().work.run();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error en el planificador: " + e.getMessage());
+            }
+        }
+    }
+
+    // Trabajo en la cola
+    private static class Entry implements Comparable<Entry> {
+        final Priority priority;
+        final long sequence;
+        final Runnable work;
+
+        Entry(Priority priority, long sequence, Runnable work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // Prioridad y token de un trabajo en ejecución
+    private static class Context {
+        final Priority priority;
+        final CancellationToken token;
+
+        Context(Priority priority, CancellationToken token) {
+            this.priority = priority;
+            this.token = token;
+        }
+    }
+}
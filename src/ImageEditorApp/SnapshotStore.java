@@ -0,0 +1,147 @@
+package ImageEditorApp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Instantáneas comprimidas de todas las pestañas con un presupuesto global de bytes (LRU)
+// Se comprime y descomprime fuera del cerrojo: solo el mapa y la cuenta de bytes son compartidos entre pestañas
+public class SnapshotStore {
+
+    private static final SnapshotStore INSTANCE = new SnapshotStore(64L * 1024 * 1024);
+
+    private final LinkedHashMap<Key, byte[]> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long budgetBytes;
+    private long usedBytes;
+
+    public SnapshotStore(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static SnapshotStore getInstance() {
+        return INSTANCE;
+    }
+
+    // Guarda los píxeles comprimidos y expulsa las menos usadas si se supera el presupuesto
+    public void put(Object owner, int step, int[] pixels) {
+        byte[] compressed = compress(pixels);
+        synchronized (this) {
+            byte[] previous = snapshots.put(new Key(owner, step), compressed);
+            usedBytes += compressed.length - (previous != null ? previous.length : 0);
+            evict();
+        }
+    }
+
+    // Píxeles de la instantánea, o null si no existe o fue expulsada
+    public int[] get(Object owner, int step, int length) {
+        byte[] compressed;
+        synchronized (this) {
+            compressed = snapshots.get(new Key(owner, step));
+        }
+        return compressed != null ? decompress(compressed, length) : null; // Los arrays guardados no se modifican
+    }
+
+    // Elimina las instantáneas posteriores a un paso
+    public synchronized void removeAfter(Object owner, int step) {
+        removeIf(owner, step);
+    }
+
+    // Elimina todas las instantáneas de una pestaña
+    public synchronized void removeAll(Object owner) {
+        removeIf(owner, -1);
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void removeIf(Object owner, int afterStep) {
+        Iterator<Map.Entry<Key, byte[]>> it = snapshots.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, byte[]> entry = it.next();
+            if (entry.getKey().owner == owner && entry.getKey().step > afterStep) {
+                usedBytes -= entry.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<byte[]> it = snapshots.values().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= it.next().length;
+            it.remove();
+        }
+    }
+
+    private static byte[] compress(int[] pixels) {
+        ByteBuffer bytes = ByteBuffer.allocate(pixels.length * 4);
+        bytes.asIntBuffer().put(pixels);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(bytes.array());
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pixels.length);
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static int[] decompress(byte[] compressed, int length) {
+        byte[] bytes = new byte[length * 4];
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        try {
+            int read = 0;
+            while (read < bytes.length && !inflater.finished()) {
+                read += inflater.inflate(bytes, read, bytes.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Instantánea dañada", e);
+        } finally {
+            inflater.end();
+        }
+        int[] pixels = new int[length];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(pixels);
+        return pixels;
+    }
+
+    // Pestaña (por identidad) y paso del historial
+    private static class Key {
+        final Object owner;
+        final int step;
+
+        Key(Object owner, int step) {
+            this.owner = owner;
+            this.step = step;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return owner == other.owner && step == other.step;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(owner), step);
+        }
+    }
+}
@@ -9,7 +9,7 @@ import javafx.stage.Stage;
 
 public class SplashScreen {
     
-    // Muestra pantalla bienvenida
+    // Muestra pantalla bienvenida mientras se prepara la aplicación y la cierra al terminar
     public static void show(Stage primaryStage, Runnable onFinished) {
         Stage splashStage = new Stage();
         StackPane splashRoot = new StackPane();
@@ -21,7 +21,7 @@ public class SplashScreen {
         Task<Void> loadTask = new Task<>() {
             @Override
             protected Void call() throws Exception {
-                Thread.sleep(3000);
+                Warmup.run();
                 return null;
             }
 
@@ -32,8 +32,15 @@ public class SplashScreen {
                     onFinished.run();
                 });
             }
+
+            @Override
+            protected void failed() {
+                succeeded(); // El calentamiento es opcional: se arranca igualmente
+            }
         };
 
-        new Thread(loadTask).start();
+        Thread warmupThread = new Thread(loadTask, "warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ImageEditorApp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Evento de JDK Flight Recorder para cada etapa medida (decodificación, filtro, codificación, espera en cola)
+@Name("ImageEditorApp.Stage")
+@Label("Etapa de procesado")
+@Category("ImageEditorApp")
+@Description("Duración de una etapa del procesado de imágenes")
+public class StageEvent extends Event {
+
+    @Label("Etapa")
+    String stage;
+
+    @Label("Megapíxeles")
+    double megapixels;
+
+    @Label("Imágenes en curso")
+    int jobsInFlight;
+}
@@ -0,0 +1,97 @@
+package ImageEditorApp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pestañas con píxeles cargados, en orden de uso, con un techo de memoria: al superarlo se liberan las menos usadas
+// La pestaña seleccionada nunca se libera
+public class TabMemory {
+
+    private final LinkedHashMap<Object, Entry> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private long budgetBytes;
+    private long usedBytes;
+    private Object pinned;
+
+    public TabMemory(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    // Registra (o marca como recién usada) una pestaña cargada; release libera sus píxeles si hay que expulsarla
+    public void touch(Object owner, long bytes, Runnable release) {
+        List<Runnable> evicted;
+        synchronized (this) {
+            Entry previous = loaded.put(owner, new Entry(bytes, release));
+            usedBytes += bytes - (previous != null ? previous.bytes : 0);
+            evicted = evict();
+        }
+        runAll(evicted);
+    }
+
+    // Marca como recién usada una pestaña ya registrada
+    public synchronized boolean touch(Object owner) {
+        return loaded.get(owner) != null;
+    }
+
+    // Pestaña cerrada o liberada por otro motivo
+    public synchronized void remove(Object owner) {
+        Entry entry = loaded.remove(owner);
+        if (entry != null) {
+            usedBytes -= entry.bytes;
+        }
+        if (pinned == owner) {
+            pinned = null;
+        }
+    }
+
+    // Pestaña seleccionada: no se expulsa aunque sea la más antigua
+    public synchronized void setPinned(Object owner) {
+        pinned = owner;
+    }
+
+    // Cambia el techo y libera lo que sobre
+    public void setBudgetBytes(long bytes) {
+        List<Runnable> evicted;
+        synchronized (this) {
+            budgetBytes = bytes;
+            evicted = evict();
+        }
+        runAll(evicted);
+    }
+
+    // Saca de la lista las menos usadas; sus liberaciones se ejecutan fuera del candado
+    private List<Runnable> evict() {
+        List<Runnable> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Object, Entry>> it = loaded.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<Object, Entry> entry = it.next();
+            if (entry.getKey() == pinned) {
+                continue;
+            }
+            usedBytes -= entry.getValue().bytes;
+            evicted.add(entry.getValue().release);
+            it.remove();
+        }
+        return evicted;
+    }
+
+    private static void runAll(List<Runnable> releases) {
+        for (Runnable release : releases) {
+            Metrics.increment("tabs:released");
+            release.run();
+        }
+    }
+
+    // Pestaña cargada
+    private static class Entry {
+        final long bytes;
+        final Runnable release;
+
+        Entry(long bytes, Runnable release) {
+            this.bytes = bytes;
+            this.release = release;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ImageEditorApp;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Trabajo de arranque (prioridad baja en el planificador): crea los pools, calienta los kernels y precarga los códecs
+public class Warmup {
+
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 512; // Supera el umbral paralelo de PixelEngine
+    private static final int ITERATIONS = 10;
+
+    // Ejecuta las tres tareas en paralelo y espera a que terminen
+    public static void run() {
+        Metrics.Sample sample = Metrics.start("warmup");
+        Executor prefetch = Scheduler.getInstance().executor(Scheduler.Priority.PREFETCH);
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(Warmup::createPools, prefetch),
+                    CompletableFuture.runAsync(Warmup::warmKernels, prefetch),
+                    CompletableFuture.runAsync(Warmup::preloadCodecs, prefetch)
+            ).join();
+        } finally {
+            sample.stop();
+        }
+    }
+
+    // Inicializa los pools estáticos y arranca sus hilos
+    private static void createPools() {
+        PixelEngine.getParallelism();
+        FileManager.getPendingSaves();
+        SnapshotStore.getInstance();
+    }
+
+    // Ejecuta cada kernel y la cadena fusionada sobre una imagen sintética para forzar la compilación JIT
+    private static void warmKernels() {
+        int[] src = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = 0xFF000000 | ((i * 0x9E3779B1) >>> 8);
+        }
+        int[] dst = new int[src.length];
+        PixelKernel[] kernels = {
+                PixelKernels.blackAndWhite(),
+                PixelKernels.invertColors(),
+                PixelKernels.brightness(1.2)
+        };
+        CompiledChain[] chains = {
+                FilterChain.empty().brightness(1.2).invertColors().compile(),
+                FilterChain.empty().blackAndWhite().brightness(1.2).compile(),
+                FilterChain.empty().gaussianBlur(2).sharpen(1).compile(),
+                FilterChain.empty().boxBlur(3).edges().compile()
+        };
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (PixelKernel kernel : kernels) {
+                PixelEngine.run(kernel, src, dst, WIDTH, HEIGHT);
+            }
+            for (CompiledChain chain : chains) {
+                chain.run(src, dst, WIDTH, HEIGHT);
+            }
+        }
+        PixelEngine.readPixels(PixelEngine.writePixels(dst, WIDTH, HEIGHT));
+        FileManager.toBufferedImage(PixelImages.wrap(dst, WIDTH, HEIGHT));
+    }
+
+    // Registra los plugins de ImageIO y hace un ciclo PNG/JPEG completo
+    private static void preloadCodecs() {
+        try {
+            ImageIO.scanForPlugins();
+            BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+            for (String format : new String[]{"png", "jpg"}) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, format, out);
+                ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}